@@ -0,0 +1,57 @@
+package org.opentripplanner.framework.io;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.opentripplanner.utils.tostring.ToStringBuilder;
+
+/**
+ * Keeps the cache validators ({@code ETag} and {@code Last-Modified}) of the last successful
+ * response from a single resource, and turns them into the conditional request headers
+ * ({@code If-None-Match} and {@code If-Modified-Since}) of the next request. The server can then
+ * answer with {@code 304 Not Modified} instead of sending the same payload again.
+ * <p>
+ * Use one instance per polled resource, see {@link OtpHttpClient#getAndMapIfModified}.
+ *
+ * <h3>Thread-safety</h3>
+ * The validators are replaced together, so a request never combines the {@code ETag} of one
+ * response with the {@code Last-Modified} of another.
+ */
+public class HttpCacheValidators {
+
+  private volatile Map<String, String> requestHeaders = Map.of();
+
+  /**
+   * The conditional request headers to add to the next request. Empty if no response with
+   * validators has been received yet.
+   */
+  public Map<String, String> requestHeaders() {
+    return requestHeaders;
+  }
+
+  /**
+   * Read the validators from a successful response.
+   */
+  void update(HttpResponse response) {
+    var headers = new HashMap<String, String>();
+    Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+    if (etag != null) {
+      headers.put(HttpHeaders.IF_NONE_MATCH, etag.getValue());
+    }
+    Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+    if (lastModified != null) {
+      headers.put(HttpHeaders.IF_MODIFIED_SINCE, lastModified.getValue());
+    }
+    this.requestHeaders = Map.copyOf(headers);
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(HttpCacheValidators.class)
+      .addObj("headers", requestHeaders)
+      .toString();
+  }
+}
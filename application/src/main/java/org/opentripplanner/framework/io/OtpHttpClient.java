@@ -12,6 +12,7 @@ import java.net.URL;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -30,6 +31,7 @@ import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.util.Timeout;
@@ -189,6 +191,42 @@ public class OtpHttpClient {
     return sendAndMap(new HttpGet(uri), uri, timeout, headers, contentMapper);
   }
 
+  /**
+   * Executes a conditional HTTP GET request using the validators from the previous successful
+   * response, and returns the body mapped according to the provided content mapper. Returns empty
+   * result if the server answers with http status 304 "Not Modified", in which case the caller
+   * should keep using the result of the previous request. The validators are updated after the
+   * response has been mapped successfully.
+   * <p>
+   * If the protocol is neither HTTP nor HTTPS, the URI is interpreted as a local file and always
+   * read.
+   */
+  public <T> Optional<T> getAndMapIfModified(
+    URI uri,
+    Map<String, String> headers,
+    HttpCacheValidators validators,
+    ResponseMapper<T> contentMapper
+  ) {
+    if (!isHttp(uri)) {
+      return Optional.of(getAndMap(uri, headers, contentMapper));
+    }
+    var requestHeaders = new HashMap<>(headers);
+    requestHeaders.putAll(validators.requestHeaders());
+    return executeAndMapWithResponseHandler(
+      new HttpGet(uri),
+      null,
+      requestHeaders,
+      response -> {
+        if (response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+          return Optional.empty();
+        }
+        T result = mapResponse(response, contentMapper);
+        validators.update(response);
+        return Optional.of(result);
+      }
+    );
+  }
+
   /**
    * Send an HTTP POST request with Content-Type: application/json. The body of the request
    * is defined by {@code jsonBody}.
@@ -350,18 +388,11 @@ public class OtpHttpClient {
     Map<String, String> headers,
     ResponseMapper<T> contentMapper
   ) {
-    URL downloadUrl;
-    try {
-      downloadUrl = uri.toURL();
-    } catch (MalformedURLException e) {
-      throw new OtpHttpClientException(e);
-    }
-    String proto = downloadUrl.getProtocol();
-    if (proto.equals("http") || proto.equals("https")) {
+    if (isHttp(uri)) {
       return executeAndMap(request, timeout, headers, contentMapper);
     } else {
       // Local file probably, try standard java
-      try (InputStream is = downloadUrl.openStream()) {
+      try (InputStream is = toUrl(uri).openStream()) {
         return contentMapper.apply(is);
       } catch (Exception e) {
         throw new OtpHttpClientException(e);
@@ -369,6 +400,19 @@ public class OtpHttpClient {
     }
   }
 
+  private static boolean isHttp(URI uri) {
+    String proto = toUrl(uri).getProtocol();
+    return proto.equals("http") || proto.equals("https");
+  }
+
+  private static URL toUrl(URI uri) {
+    try {
+      return uri.toURL();
+    } catch (MalformedURLException e) {
+      throw new OtpHttpClientException(e);
+    }
+  }
+
   /**
    * Configures the request with a custom timeout.
    */
@@ -97,6 +97,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
 
     Set<StopLocation> stopLocationsUsedForCarsAllowedTrips = timetableRepository.getStopLocationsUsedForCarsAllowedTrips();
 
+    List<TransitStopVertex> stopsToLink = new ArrayList<>();
     for (TransitStopVertex tStop : vertices) {
       // Stops with pathways do not need to be connected to the street network, since there are explicit entrances defined for that
       if (tStop.hasPathways()) {
@@ -106,7 +107,13 @@ public class StreetLinkerModule implements GraphBuilderModule {
       if (isAlreadyLinked(tStop, stopLocationsUsedForFlexTrips)) {
         continue;
       }
+      stopsToLink.add(tStop);
+    }
+
+    // Find the closest edges in parallel, the linking is done one stop at a time below
+    graph.getLinker().prepareLinking(stopsToLink, WALK_ONLY);
 
+    for (TransitStopVertex tStop : stopsToLink) {
       // ordinarily stops only need to be accessible by foot
       StopLinkType linkType = StopLinkType.WALK_ONLY;
 
@@ -124,6 +131,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
       //noinspection Convert2MethodRef
       progress.step(m -> LOG.info(m));
     }
+    graph.getLinker().clearPreparedLinks();
     LOG.info(progress.completeMessage());
   }
 
@@ -252,7 +260,9 @@ public class StreetLinkerModule implements GraphBuilderModule {
 
   private void linkTransitEntrances(Graph graph) {
     LOG.info("Linking transit entrances to graph...");
-    for (TransitEntranceVertex tEntrance : graph.getVerticesOfType(TransitEntranceVertex.class)) {
+    var entrances = graph.getVerticesOfType(TransitEntranceVertex.class);
+    graph.getLinker().prepareLinking(entrances, WALK_ONLY);
+    for (TransitEntranceVertex tEntrance : entrances) {
       graph
         .getLinker()
         .linkVertexPermanently(
@@ -272,6 +282,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
             )
         );
     }
+    graph.getLinker().clearPreparedLinks();
   }
 
   private void linkStationCentroids(Graph graph) {
@@ -290,7 +301,9 @@ public class StreetLinkerModule implements GraphBuilderModule {
         )
       );
 
-    for (StationCentroidVertex station : graph.getVerticesOfType(StationCentroidVertex.class)) {
+    var stations = graph.getVerticesOfType(StationCentroidVertex.class);
+    graph.getLinker().prepareLinking(stations, WALK_ONLY);
+    for (StationCentroidVertex station : stations) {
       graph
         .getLinker()
         .linkVertexPermanently(
@@ -300,14 +313,24 @@ public class StreetLinkerModule implements GraphBuilderModule {
           stationAndStreetVertexLinker
         );
     }
+    graph.getLinker().clearPreparedLinks();
   }
 
   private void linkVehicleParks(Graph graph, DataImportIssueStore issueStore) {
     LOG.info("Linking vehicle parks to graph...");
     List<VehicleParking> vehicleParkingToRemove = new ArrayList<>();
-    for (VehicleParkingEntranceVertex vehicleParkingEntranceVertex : graph.getVerticesOfType(
-      VehicleParkingEntranceVertex.class
-    )) {
+    var entranceVertices = graph.getVerticesOfType(VehicleParkingEntranceVertex.class);
+    graph
+      .getLinker()
+      .prepareLinking(
+        entranceVertices
+          .stream()
+          .filter(v -> !v.isLinkedToGraph() && v.getParkingEntrance().getVertex() == null)
+          .filter(VehicleParkingEntranceVertex::isWalkAccessible)
+          .toList(),
+        WALK_ONLY
+      );
+    for (VehicleParkingEntranceVertex vehicleParkingEntranceVertex : entranceVertices) {
       if (vehicleParkingEntranceVertex.isLinkedToGraph()) {
         continue;
       }
@@ -333,6 +356,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
         vehicleParkingToRemove.add(vehicleParking);
       }
     }
+    graph.getLinker().clearPreparedLinks();
     if (!vehicleParkingToRemove.isEmpty()) {
       parkingRepository.updateVehicleParking(List.of(), vehicleParkingToRemove);
     }
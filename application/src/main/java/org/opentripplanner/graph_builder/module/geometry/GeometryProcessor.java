@@ -52,6 +52,10 @@ public class GeometryProcessor {
   private final Map<FeedScopedId, LineString> geometriesByShapeId = new ConcurrentHashMap<>();
   // this is a thread-safe implementation
   private final Map<FeedScopedId, double[]> distancesByShapeId = new ConcurrentHashMap<>();
+  // this is a thread-safe implementation
+  private final Map<FeedScopedId, ShapeSegmentIndex> segmentIndexByShapeId = new ConcurrentHashMap<>();
+  // this is a thread-safe implementation
+  private final Map<HopGeometriesKey, List<LineString>> hopGeometriesByKey = new ConcurrentHashMap<>();
   private final double maxStopToShapeSnapDistance;
   private final DataImportIssueStore issueStore;
 
@@ -85,9 +89,20 @@ public class GeometryProcessor {
       return null;
     }
 
-    return Arrays.asList(
-      createGeometry(trip.getShapeId(), transitService.getStopTimesSortedByTrip().get(trip))
-    );
+    List<StopTime> stopTimes = transitService.getStopTimesSortedByTrip().get(trip);
+    var key = HopGeometriesKey.of(trip.getShapeId(), stopTimes);
+    List<LineString> geometries = hopGeometriesByKey.get(key);
+    if (geometries != null) {
+      return geometries;
+    }
+    var result = createGeometry(trip.getShapeId(), stopTimes);
+    geometries = Collections.unmodifiableList(Arrays.asList(result.geometries()));
+    // The issues are reported for each trip, so only geometries created without issues are
+    // reused. A trip with the same key would get the same issues.
+    if (!result.hasIssues()) {
+      hopGeometriesByKey.put(key, geometries);
+    }
+    return geometries;
   }
 
   private static boolean equals(LinearLocation startIndex, LinearLocation endIndex) {
@@ -108,13 +123,16 @@ public class GeometryProcessor {
    * one of the trips with exactly the same sequence of stops could follow a different route on the
    * streets, but that's very uncommon.
    */
-  private LineString[] createGeometry(FeedScopedId shapeId, List<StopTime> stopTimes) {
+  private HopGeometries createGeometry(FeedScopedId shapeId, List<StopTime> stopTimes) {
+    boolean hasIssues = false;
     if (hasShapeDist(shapeId, stopTimes)) {
       // this trip has shape_dist in stop_times
       LineString[] geometries = getHopGeometriesViaShapeDistTravelled(stopTimes, shapeId);
       if (geometries != null) {
-        return geometries;
+        return new HopGeometries(geometries, false);
       }
+      // an issue is reported when the shape_dist can not be used
+      hasIssues = true;
       // else proceed to method below which uses shape without distance information
     }
 
@@ -123,19 +141,22 @@ public class GeometryProcessor {
       // this trip has a shape_id, but no such shape exists, and no shape_dist in stop_times
       // create straight line segments between stops for each hop
       issueStore.add(new MissingShapeGeometry(stopTimes.get(0).getTrip().getId(), shapeId));
-      return createStraightLineHopGeometries(stopTimes);
+      return new HopGeometries(createStraightLineHopGeometries(stopTimes), true);
     }
 
-    List<LinearLocation> locations = getLinearLocations(stopTimes, shapeLineString);
+    List<LinearLocation> locations = getLinearLocations(stopTimes, shapeId, shapeLineString);
     if (locations == null) {
       // this only happens on shape which have points very far from
       // their stop sequence. So we'll fall back to trivial stop-to-stop
       // linking, even though theoretically we could do better.
       issueStore.add(new ShapeGeometryTooFar(stopTimes.get(0).getTrip().getId(), shapeId));
-      return createStraightLineHopGeometries(stopTimes);
+      return new HopGeometries(createStraightLineHopGeometries(stopTimes), true);
     }
 
-    return getGeometriesByShape(stopTimes, shapeId, shapeLineString, locations);
+    return new HopGeometries(
+      getGeometriesByShape(stopTimes, shapeId, shapeLineString, locations),
+      hasIssues
+    );
   }
 
   private boolean hasShapeDist(FeedScopedId shapeId, List<StopTime> stopTimes) {
@@ -203,50 +224,70 @@ public class GeometryProcessor {
     return geoms;
   }
 
-  private List<LinearLocation> getLinearLocations(List<StopTime> stopTimes, LineString shape) {
+  private List<LinearLocation> getLinearLocations(
+    List<StopTime> stopTimes,
+    FeedScopedId shapeId,
+    LineString shape
+  ) {
+    var possibleSegmentsForStop = findPossibleSegmentsForStops(stopTimes, shapeId, shape);
+    return getStopLocations(possibleSegmentsForStop, stopTimes, 0, -1);
+  }
+
+  /**
+   * Find the shape segments each stop can be matched to, the closest segment first. The
+   * candidates of a stop which are after the last candidate of a later stop are removed.
+   */
+  List<List<IndexedLineSegment>> findPossibleSegmentsForStops(
+    List<StopTime> stopTimes,
+    FeedScopedId shapeId,
+    LineString shape
+  ) {
     var isFlexTrip = FlexTrip.containsFlexStops(stopTimes);
     // This trip does not have shape_dist in stop_times, but does have an associated shape.
-    ArrayList<IndexedLineSegment> segments = new ArrayList<>();
-    for (int i = 0; i < shape.getNumPoints() - 1; ++i) {
-      segments.add(new IndexedLineSegment(i, shape.getCoordinateN(i), shape.getCoordinateN(i + 1)));
-    }
+    ShapeSegmentIndex segmentIndex = segmentIndexByShapeId.computeIfAbsent(shapeId, id ->
+      new ShapeSegmentIndex(shape)
+    );
     // Find possible segment matches for each stop.
     List<List<IndexedLineSegment>> possibleSegmentsForStop = new ArrayList<>();
     int minSegmentIndex = 0;
     for (int i = 0; i < stopTimes.size(); ++i) {
       StopLocation stop = stopTimes.get(i).getStop();
       Coordinate coord = stop.getCoordinate().asJtsCoordinate();
-      List<IndexedLineSegment> stopSegments = new ArrayList<>();
-      double bestDistance = Double.MAX_VALUE;
-      IndexedLineSegment bestSegment = null;
+      List<IndexedLineSegment> stopSegments = isFlexTrip
+        ? segmentIndex.segmentsFrom(minSegmentIndex)
+        : segmentIndex.findSegmentsWithinDistance(
+          coord,
+          maxStopToShapeSnapDistance,
+          minSegmentIndex
+        );
       int maxSegmentIndex = -1;
-      int index = -1;
-      int minSegmentIndexForThisStop = -1;
-      for (IndexedLineSegment segment : segments) {
-        index++;
-        if (segment.index < minSegmentIndex) {
-          continue;
-        }
-        double distance = segment.distance(coord);
-        if (distance < maxStopToShapeSnapDistance || isFlexTrip) {
-          stopSegments.add(segment);
-          maxSegmentIndex = index;
-          if (minSegmentIndexForThisStop == -1) minSegmentIndexForThisStop = index;
-        } else if (distance < bestDistance) {
-          bestDistance = distance;
-          bestSegment = segment;
-          if (maxSegmentIndex != -1) {
-            maxSegmentIndex = index;
-          }
-        }
-      }
-      if (stopSegments.size() == 0 && bestSegment != null) {
+      if (stopSegments.isEmpty()) {
         //no segments within 150m
         //fall back to nearest segment
-        stopSegments.add(bestSegment);
-        minSegmentIndex = bestSegment.index;
+        IndexedLineSegment bestSegment = segmentIndex.findNearestSegment(coord, minSegmentIndex);
+        if (bestSegment != null) {
+          stopSegments.add(bestSegment);
+          minSegmentIndex = bestSegment.index;
+        } else {
+          minSegmentIndex = -1;
+        }
       } else {
-        minSegmentIndex = minSegmentIndexForThisStop;
+        int firstSegmentIndex = stopSegments.getFirst().index;
+        maxSegmentIndex = stopSegments.getLast().index;
+        if (!isFlexTrip) {
+          // A segment outside the snap distance, after the first segment within it, also raises
+          // the max index if it is closer than all segments outside the snap distance before it.
+          // That is the first of the closest segments outside the snap distance.
+          var nearestOutside = segmentIndex.findNearestSegmentNotWithinDistance(
+            coord,
+            maxStopToShapeSnapDistance,
+            minSegmentIndex
+          );
+          if (nearestOutside != null && nearestOutside.index > firstSegmentIndex) {
+            maxSegmentIndex = Math.max(maxSegmentIndex, nearestOutside.index);
+          }
+        }
+        minSegmentIndex = firstSegmentIndex;
         stopSegments.sort(new IndexedLineSegmentComparator(coord));
       }
 
@@ -263,8 +304,7 @@ public class GeometryProcessor {
       }
       possibleSegmentsForStop.add(stopSegments);
     }
-
-    return getStopLocations(possibleSegmentsForStop, stopTimes, 0, -1);
+    return possibleSegmentsForStop;
   }
 
   private LineString[] createStraightLineHopGeometries(List<StopTime> stopTimes) {
@@ -548,4 +588,24 @@ public class GeometryProcessor {
     double indexPart = (distance - distances[index - 1]) / (distances[index] - prevDistance);
     return new LinearLocation(index - 1, indexPart);
   }
+
+  private record HopGeometries(LineString[] geometries, boolean hasIssues) {}
+
+  /**
+   * The hop geometries only depend on the shape and on the stops and shape distances of the
+   * trip, so trips in different patterns with the same shape and stops get the same geometries.
+   */
+  private record HopGeometriesKey(
+    FeedScopedId shapeId,
+    List<StopLocation> stops,
+    List<Double> shapeDistances
+  ) {
+    static HopGeometriesKey of(FeedScopedId shapeId, List<StopTime> stopTimes) {
+      return new HopGeometriesKey(
+        shapeId,
+        stopTimes.stream().map(StopTime::getStop).toList(),
+        stopTimes.stream().map(StopTime::getShapeDistTraveled).toList()
+      );
+    }
+  }
 }
@@ -0,0 +1,151 @@
+package org.opentripplanner.graph_builder.module.geometry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+
+/**
+ * The line segments of a shape, with an R-tree over the segment envelopes. This is used to find
+ * the segments close to a stop without computing the distance to every segment of the shape. The
+ * index is created once for each shape and shared by all trips using the shape.
+ * <p>
+ * THREAD SAFETY The tree is built in the constructor, after that it is only read.
+ */
+class ShapeSegmentIndex {
+
+  /**
+   * {@link IndexedLineSegment#distance(Coordinate)} is an approximation, so the search envelope
+   * is expanded by this factor to make sure no segment within the distance is missed.
+   */
+  private static final double SEARCH_ENVELOPE_MARGIN = 2.0;
+
+  private final List<IndexedLineSegment> segments;
+  private final STRtree index = new STRtree();
+  private final Envelope bounds = new Envelope();
+
+  ShapeSegmentIndex(LineString shape) {
+    this.segments = new ArrayList<>(shape.getNumPoints() - 1);
+    for (int i = 0; i < shape.getNumPoints() - 1; ++i) {
+      var segment = new IndexedLineSegment(i, shape.getCoordinateN(i), shape.getCoordinateN(i + 1));
+      segments.add(segment);
+      var envelope = new Envelope(segment.start, segment.end);
+      index.insert(envelope, segment);
+      bounds.expandToInclude(envelope);
+    }
+    index.build();
+  }
+
+  /**
+   * Return all segments starting at the given segment index, in segment order.
+   */
+  List<IndexedLineSegment> segmentsFrom(int minSegmentIndex) {
+    return new ArrayList<>(segments.subList(Math.max(0, minSegmentIndex), segments.size()));
+  }
+
+  /**
+   * Return the segments closer than the given distance to the coordinate, in segment order.
+   * Segments before the given segment index are skipped.
+   */
+  List<IndexedLineSegment> findSegmentsWithinDistance(
+    Coordinate coord,
+    double maxDistanceMeters,
+    int minSegmentIndex
+  ) {
+    var result = new ArrayList<IndexedLineSegment>();
+    for (Object it : index.query(searchEnvelope(coord, maxDistanceMeters))) {
+      var segment = (IndexedLineSegment) it;
+      if (segment.index >= minSegmentIndex && segment.distance(coord) < maxDistanceMeters) {
+        result.add(segment);
+      }
+    }
+    result.sort(Comparator.comparingInt(s -> s.index));
+    return result;
+  }
+
+  /**
+   * Return the segment closest to the coordinate, the first one is returned if more than one
+   * segment has the same distance. Segments before the given segment index are skipped. This
+   * visits all segments, it is only used when no segment is found within the snap distance.
+   */
+  @Nullable
+  IndexedLineSegment findNearestSegment(Coordinate coord, int minSegmentIndex) {
+    double bestDistance = Double.MAX_VALUE;
+    IndexedLineSegment bestSegment = null;
+    for (int i = Math.max(0, minSegmentIndex); i < segments.size(); ++i) {
+      var segment = segments.get(i);
+      double distance = segment.distance(coord);
+      if (distance < bestDistance) {
+        bestDistance = distance;
+        bestSegment = segment;
+      }
+    }
+    return bestSegment;
+  }
+
+  /**
+   * Return the segment closest to the coordinate among the segments which are NOT closer than the
+   * given distance, the first one is returned if more than one segment has the same distance.
+   * Segments before the given segment index are skipped.
+   * <p>
+   * The search starts close to the coordinate and is widened until a segment is found, so usually
+   * only the segments near the coordinate are visited.
+   */
+  @Nullable
+  IndexedLineSegment findNearestSegmentNotWithinDistance(
+    Coordinate coord,
+    double maxDistanceMeters,
+    int minSegmentIndex
+  ) {
+    if (segments.isEmpty()) {
+      return null;
+    }
+    double radius = 2 * maxDistanceMeters;
+    while (true) {
+      var envelope = searchEnvelope(coord, radius);
+      boolean allSegments = envelope.contains(bounds);
+      List<?> candidates = allSegments ? segments : index.query(envelope);
+
+      double bestDistance = Double.MAX_VALUE;
+      IndexedLineSegment bestSegment = null;
+      for (Object it : candidates) {
+        var segment = (IndexedLineSegment) it;
+        if (segment.index < minSegmentIndex) {
+          continue;
+        }
+        double distance = segment.distance(coord);
+        // All segments within the radius are in the envelope, but segments farther away may be
+        // missing. So the segments outside the radius are skipped, unless all are visited.
+        if (distance < maxDistanceMeters || (!allSegments && distance >= radius)) {
+          continue;
+        }
+        if (
+          distance < bestDistance ||
+          (distance == bestDistance && segment.index < bestSegment.index)
+        ) {
+          bestDistance = distance;
+          bestSegment = segment;
+        }
+      }
+      if (bestSegment != null || allSegments) {
+        return bestSegment;
+      }
+      radius *= 4;
+    }
+  }
+
+  private static Envelope searchEnvelope(Coordinate coord, double distanceMeters) {
+    double searchDistance = distanceMeters * SEARCH_ENVELOPE_MARGIN;
+    var envelope = new Envelope(coord);
+    envelope.expandBy(
+      SphericalDistanceLibrary.metersToLonDegrees(searchDistance, coord.y),
+      SphericalDistanceLibrary.metersToDegrees(searchDistance)
+    );
+    return envelope;
+  }
+}
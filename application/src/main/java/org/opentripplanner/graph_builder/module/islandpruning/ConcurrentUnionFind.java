@@ -0,0 +1,52 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Union-find over the integers {@code [0, size)}, which can be updated by many threads at the same
+ * time without locking. A root is always linked below a root with a lower index, so no cycles can
+ * be created by concurrent unions. Each find halves the path it follows.
+ */
+class ConcurrentUnionFind {
+
+  private final AtomicIntegerArray parent;
+
+  ConcurrentUnionFind(int size) {
+    this.parent = new AtomicIntegerArray(size);
+    for (int i = 0; i < size; i++) {
+      parent.set(i, i);
+    }
+  }
+
+  int find(int element) {
+    int x = element;
+    while (true) {
+      int p = parent.get(x);
+      if (p == x) {
+        return x;
+      }
+      int grandParent = parent.get(p);
+      if (grandParent != p) {
+        // Path halving, it does not matter if another thread changed the parent first
+        parent.compareAndSet(x, p, grandParent);
+      }
+      x = grandParent;
+    }
+  }
+
+  void union(int a, int b) {
+    while (true) {
+      int rootA = find(a);
+      int rootB = find(b);
+      if (rootA == rootB) {
+        return;
+      }
+      int high = Math.max(rootA, rootB);
+      int low = Math.min(rootA, rootB);
+      // Retry if another thread linked the root to something else in the meantime
+      if (parent.compareAndSet(high, high, low)) {
+        return;
+      }
+    }
+  }
+}
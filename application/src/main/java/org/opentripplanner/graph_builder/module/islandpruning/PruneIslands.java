@@ -1,5 +1,10 @@
 package org.opentripplanner.graph_builder.module.islandpruning;
 
+import gnu.trove.impl.Constants;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -9,8 +14,11 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import javax.annotation.Nullable;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.GraphConnectivity;
 import org.opentripplanner.graph_builder.issues.IsolatedStop;
@@ -46,6 +54,8 @@ import org.slf4j.LoggerFactory;
 public class PruneIslands implements GraphBuilderModule {
 
   private static final Logger LOG = LoggerFactory.getLogger(PruneIslands.class);
+  private static final int NO_VERTEX = -1;
+  private static final int NO_ISLAND = -1;
 
   private final Graph graph;
   private final TimetableRepository timetableRepository;
@@ -58,6 +68,10 @@ public class PruneIslands implements GraphBuilderModule {
   private VertexLinker vertexLinker;
   private StreetIndex streetIndex;
 
+  /** The vertices of the graph, the island analysis use the index into this array. */
+  private Vertex[] vertices;
+  private TObjectIntMap<Vertex> vertexIndex;
+
   public PruneIslands(
     Graph graph,
     TimetableRepository timetableRepository,
@@ -84,9 +98,21 @@ public class PruneIslands implements GraphBuilderModule {
     this.vertexLinker = graph.getLinkerSafe(timetableRepository.getSiteRepository());
     this.streetIndex = graph.getStreetIndexSafe(timetableRepository.getSiteRepository());
 
-    pruneIslands(TraverseMode.BICYCLE);
-    pruneIslands(TraverseMode.WALK);
-    pruneIslands(TraverseMode.CAR);
+    indexVertices();
+
+    // The island analysis only reads the graph, while the pruning changes it. The bicycle
+    // pruning does not change what is reachable by walking, so the bicycle and walk analysis run
+    // in parallel, and both must complete before the graph is changed. The car analysis must run
+    // after the walk pruning, which unlinks stops.
+    var bicycle = CompletableFuture.supplyAsync(() -> analyseIslands(TraverseMode.BICYCLE));
+    var walk = analyseIslands(TraverseMode.WALK);
+    pruneIslands(bicycle.join());
+    pruneIslands(walk);
+    pruneIslands(analyseIslands(TraverseMode.CAR));
+
+    // Release the index, the vertices of the graph change below
+    this.vertices = null;
+    this.vertexIndex = null;
 
     // reconnect stops that got disconnected
     if (streetLinkerModule != null) {
@@ -168,55 +194,72 @@ public class PruneIslands implements GraphBuilderModule {
           to noThruTraffic state. Remove traversal mode specific access from unreachable edges. Remove unconnected edges.
      */
 
-  private void pruneIslands(TraverseMode traverseMode) {
+  private void indexVertices() {
+    this.vertices = graph.getVertices().toArray(Vertex[]::new);
+    this.vertexIndex =
+      new TObjectIntHashMap<>(vertices.length, Constants.DEFAULT_LOAD_FACTOR, NO_VERTEX);
+    for (int i = 0; i < vertices.length; i++) {
+      vertexIndex.put(vertices[i], i);
+    }
+  }
+
+  private IslandAnalysis analyseIslands(TraverseMode traverseMode) {
     LOG.debug("nothru pruning");
-    Map<Vertex, Subgraph> subgraphs = new HashMap<>();
-    Map<Vertex, Subgraph> extgraphs = new HashMap<>();
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex = new HashMap<>();
     Map<Edge, Boolean> isolated = new HashMap<>();
-    ArrayList<Subgraph> islands = new ArrayList<>();
-    int count;
 
     /* establish vertex neighbourhood without currently relevant noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, false);
+    long[] throughLinks = collectLinks(traverseMode, false);
 
-    /* associate each connected vertex with a subgraph */
-    count = collectSubGraphs(neighborsForVertex, subgraphs, null, null);
-    LOG.info("Islands when {} noThruTraffic is considered: {}", traverseMode, count);
+    /* associate each connected vertex with an island */
+    int[] islandOfVertex = connectedComponents(throughLinks);
+    LOG.info(
+      "Islands when {} noThruTraffic is considered: {}",
+      traverseMode,
+      countIslands(islandOfVertex)
+    );
 
-    /* Expand vertex neighbourhood with relevant noThruTrafficEdges
-       Note that we can reuse the original neighbour map here
-       and simply process a smaller set of noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, true);
+    /* Expand vertex neighbourhood with relevant noThruTrafficEdges */
+    long[] allLinks = LongStream
+      .concat(Arrays.stream(throughLinks), Arrays.stream(collectLinks(traverseMode, true)))
+      .toArray();
 
     /* Next: generate subgraphs without considering access limitations */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
-    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, count);
+    List<Subgraph> islands = subgraphs(connectedComponents(allLinks));
+    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, islands.size());
 
     /* collect unreachable edges to a map */
     processIslands(islands, isolated, true, traverseMode);
 
-    extgraphs = new HashMap<>(); // let old map go
-    islands = new ArrayList<>(); // reset this too
-
     /* Recompute expanded subgraphs by accepting noThruTraffic edges in graph expansion.
        However, expansion is not allowed to jump from an original island to another one
      */
-    collectSubGraphs(neighborsForVertex, extgraphs, subgraphs, islands);
+    var neighbours = VertexLinks.of(vertices.length, allLinks);
+    var mapped = new boolean[vertices.length];
+    islands = new ArrayList<>();
+    collectSubGraphs(neighbours, mapped, islandOfVertex, islands);
 
     /* Next round: generate purely noThruTraffic islands if such ones exist */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
+    int count = collectSubGraphs(neighbours, mapped, null, islands);
 
     LOG.info("{} noThruTraffic island count: {}", traverseMode, count);
 
     LOG.info("Total {} sub graphs found", islands.size());
 
-    count = processIslands(islands, isolated, false, traverseMode);
+    return new IslandAnalysis(traverseMode, isolated, islands);
+  }
+
+  private void pruneIslands(IslandAnalysis analysis) {
+    int count = processIslands(
+      analysis.islands(),
+      analysis.isolated(),
+      false,
+      analysis.traverseMode()
+    );
     LOG.info("Modified {} islands", count);
   }
 
   private int processIslands(
-    ArrayList<Subgraph> islands,
+    List<Subgraph> islands,
     Map<Edge, Boolean> isolated,
     boolean markIsolated,
     TraverseMode traverseMode
@@ -303,11 +346,11 @@ public class PruneIslands implements GraphBuilderModule {
     return count;
   }
 
-  private void collectNeighbourVertices(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    TraverseMode traverseMode,
-    boolean shouldMatchNoThruType
-  ) {
+  /**
+   * Find the links from each street vertex to its neighbours for the given mode. The traversal
+   * of the edges only reads the graph, so this is done in parallel.
+   */
+  private long[] collectLinks(TraverseMode traverseMode, boolean shouldMatchNoThruType) {
     StreetMode streetMode =
       switch (traverseMode) {
         case WALK -> StreetMode.WALK;
@@ -318,67 +361,131 @@ public class PruneIslands implements GraphBuilderModule {
 
     StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
 
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
+    return IntStream
+      .range(0, vertices.length)
+      .parallel()
+      .filter(i -> vertices[i] instanceof StreetVertex)
+      .mapToObj(i -> collectLinks(i, request, traverseMode, shouldMatchNoThruType))
+      .flatMapToLong(links -> links)
+      .toArray();
+  }
+
+  private LongStream collectLinks(
+    int from,
+    StreetSearchRequest request,
+    TraverseMode traverseMode,
+    boolean shouldMatchNoThruType
+  ) {
+    Vertex gv = vertices[from];
+    LongStream.Builder links = LongStream.builder();
+    State s0 = new State(gv, request);
+    for (Edge e : gv.getOutgoing()) {
+      if (
+        e instanceof StreetEdge &&
+        shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
+      ) {
         continue;
       }
-      State s0 = new State(gv, request);
-      for (Edge e : gv.getOutgoing()) {
-        if (
-          e instanceof StreetEdge &&
-          shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
-        ) {
-          continue;
-        }
-        State[] states = e.traverse(s0);
-        if (State.isEmpty(states)) {
-          continue;
+      State[] states = e.traverse(s0);
+      if (State.isEmpty(states)) {
+        continue;
+      }
+      // note: this assumes that edges are bi-directional. Maybe explicit state traversal is
+      // needed for CAR mode.
+      for (State state : states) {
+        int to = vertexIndex.get(state.getVertex());
+        if (to != NO_VERTEX) {
+          links.add(VertexLinks.link(from, to));
         }
-        Arrays
-          .stream(states)
-          .map(State::getVertex)
-          .forEach(out -> {
-            var vertexList = neighborsForVertex.computeIfAbsent(gv, k -> new ArrayList<>());
-            vertexList.add(out);
-
-            // note: this assumes that edges are bi-directional. Maybe explicit state traversal is needed for CAR mode.
-            vertexList = neighborsForVertex.computeIfAbsent(out, k -> new ArrayList<>());
-            vertexList.add(gv);
-          });
       }
     }
+    return links.build();
+  }
+
+  /**
+   * Find the connected vertices using a union-find over the links, the unions are done in
+   * parallel. Return the island of each vertex, vertices without links get {@code NO_ISLAND}.
+   */
+  private int[] connectedComponents(long[] links) {
+    var unionFind = new ConcurrentUnionFind(vertices.length);
+    Arrays
+      .stream(links)
+      .parallel()
+      .forEach(link -> unionFind.union(VertexLinks.from(link), VertexLinks.to(link)));
+
+    var linked = new boolean[vertices.length];
+    for (long link : links) {
+      linked[VertexLinks.from(link)] = true;
+      linked[VertexLinks.to(link)] = true;
+    }
+    int[] islandOfVertex = new int[vertices.length];
+    Arrays.setAll(islandOfVertex, i -> linked[i] ? unionFind.find(i) : NO_ISLAND);
+    return islandOfVertex;
+  }
+
+  private int countIslands(int[] islandOfVertex) {
+    var counted = new boolean[vertices.length];
+    int count = 0;
+    for (int i = 0; i < vertices.length; i++) {
+      int island = islandOfVertex[i];
+      if (island != NO_ISLAND && vertices[i] instanceof StreetVertex && !counted[island]) {
+        counted[island] = true;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Create a subgraph for each island with at least one street vertex, in the order of the
+   * first street vertex of each island.
+   */
+  private List<Subgraph> subgraphs(int[] islandOfVertex) {
+    var subgraphOfIsland = new Subgraph[vertices.length];
+    List<Subgraph> islands = new ArrayList<>();
+    for (int i = 0; i < vertices.length; i++) {
+      int island = islandOfVertex[i];
+      if (
+        island != NO_ISLAND &&
+        vertices[i] instanceof StreetVertex &&
+        subgraphOfIsland[island] == null
+      ) {
+        subgraphOfIsland[island] = new Subgraph();
+        islands.add(subgraphOfIsland[island]);
+      }
+    }
+    for (int i = 0; i < vertices.length; i++) {
+      int island = islandOfVertex[i];
+      if (island != NO_ISLAND && subgraphOfIsland[island] != null) {
+        subgraphOfIsland[island].addVertex(vertices[i]);
+      }
+    }
+    return islands;
   }
 
   private int collectSubGraphs(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Map<Vertex, Subgraph> newgraphs, // put new subgraphs here
-    Map<Vertex, Subgraph> subgraphs, // optional isolation map from a previous round
-    ArrayList<Subgraph> islands
-  ) { // final list of islands or null
+    VertexLinks neighbours,
+    boolean[] mapped, // vertices already in a subgraph
+    @Nullable int[] anchors, // optional islands from a previous round
+    List<Subgraph> islands // put new subgraphs here
+  ) {
     int count = 0;
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
+    for (int i = 0; i < vertices.length; i++) {
+      if (!(vertices[i] instanceof StreetVertex)) {
         continue;
       }
 
-      if (subgraphs != null && !subgraphs.containsKey(gv)) {
+      if (anchors != null && anchors[i] == NO_ISLAND) {
         // do not start new graph generation from non-classified vertex
         continue;
       }
-      if (newgraphs.containsKey(gv)) { // already processed
+      if (mapped[i]) { // already processed
         continue;
       }
-      if (!neighborsForVertex.containsKey(gv)) {
+      if (!neighbours.hasNeighbours(i)) {
         continue;
       }
-      Subgraph subgraph = computeConnectedSubgraph(neighborsForVertex, gv, subgraphs, newgraphs);
-      for (Iterator<Vertex> vIter = subgraph.streetIterator(); vIter.hasNext();) {
-        Vertex subnode = vIter.next();
-        newgraphs.put(subnode, subgraph);
-      }
-      if (islands != null) {
-        islands.add(subgraph);
-      }
+      islands.add(computeConnectedSubgraph(neighbours, i, anchors, mapped));
       count++;
     }
     return count;
@@ -503,35 +610,55 @@ public class PruneIslands implements GraphBuilderModule {
   }
 
   private Subgraph computeConnectedSubgraph(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Vertex startVertex,
-    Map<Vertex, Subgraph> anchors,
-    Map<Vertex, Subgraph> alreadyMapped
+    VertexLinks neighbours,
+    int startVertex,
+    @Nullable int[] anchors,
+    boolean[] mapped
   ) {
     Subgraph subgraph = new Subgraph();
-    Queue<Vertex> q = new LinkedList<>();
-    Subgraph anchor = null;
-
-    if (anchors != null) {
-      // anchor subgraph expansion to this subgraph
-      anchor = anchors.get(startVertex);
-    }
-    q.add(startVertex);
-    while (!q.isEmpty()) {
-      Vertex vertex = q.poll();
-      for (Vertex neighbor : neighborsForVertex.get(vertex)) {
-        if (!subgraph.contains(neighbor) && !alreadyMapped.containsKey(neighbor)) {
-          if (anchor != null) {
-            Subgraph compare = anchors.get(neighbor);
-            if (compare != null && compare != anchor) { // do not enter a new island
-              continue;
+    TIntList visited = new TIntArrayList();
+    // anchor subgraph expansion to the island of the start vertex
+    int anchor = anchors == null ? NO_ISLAND : anchors[startVertex];
+
+    visited.add(startVertex);
+    for (int next = 0; next < visited.size(); next++) {
+      neighbours.forEachNeighbour(
+        visited.get(next),
+        neighbor -> {
+          if (subgraph.contains(vertices[neighbor]) || mapped[neighbor]) {
+            return;
+          }
+          if (anchor != NO_ISLAND) {
+            int compare = anchorOf(anchors, neighbor);
+            if (compare != NO_ISLAND && compare != anchor) { // do not enter a new island
+              return;
             }
           }
-          subgraph.addVertex(neighbor);
-          q.add(neighbor);
+          subgraph.addVertex(vertices[neighbor]);
+          visited.add(neighbor);
         }
-      }
+      );
     }
+    // Stops may be part of more than one subgraph
+    visited.forEach(v -> {
+      if (subgraph.contains(vertices[v]) && !(vertices[v] instanceof TransitStopVertex)) {
+        mapped[v] = true;
+      }
+      return true;
+    });
     return subgraph;
   }
+
+  /**
+   * Stops are not part of the islands from a previous round, they can be shared.
+   */
+  private int anchorOf(int[] anchors, int vertex) {
+    return vertices[vertex] instanceof TransitStopVertex ? NO_ISLAND : anchors[vertex];
+  }
+
+  private record IslandAnalysis(
+    TraverseMode traverseMode,
+    Map<Edge, Boolean> isolated,
+    List<Subgraph> islands
+  ) {}
 }
@@ -0,0 +1,63 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import java.util.function.IntConsumer;
+
+/**
+ * The undirected links between vertices, by vertex index, stored as one array with the neighbours
+ * of all vertices and one array with the offset of each vertex into it. A link is passed around
+ * as a single {@code long} with the two vertex indices, see {@link #link(int, int)}.
+ */
+class VertexLinks {
+
+  private final int[] offsets;
+  private final int[] neighbours;
+
+  private VertexLinks(int[] offsets, int[] neighbours) {
+    this.offsets = offsets;
+    this.neighbours = neighbours;
+  }
+
+  /**
+   * Create the neighbourhood of each vertex. Each link is added in both directions.
+   */
+  static VertexLinks of(int numberOfVertices, long[] links) {
+    int[] offsets = new int[numberOfVertices + 1];
+    for (long link : links) {
+      ++offsets[from(link) + 1];
+      ++offsets[to(link) + 1];
+    }
+    for (int i = 0; i < numberOfVertices; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    int[] next = new int[numberOfVertices];
+    System.arraycopy(offsets, 0, next, 0, numberOfVertices);
+    int[] neighbours = new int[offsets[numberOfVertices]];
+    for (long link : links) {
+      neighbours[next[from(link)]++] = to(link);
+      neighbours[next[to(link)]++] = from(link);
+    }
+    return new VertexLinks(offsets, neighbours);
+  }
+
+  static long link(int from, int to) {
+    return ((long) from << 32) | (to & 0xFFFFFFFFL);
+  }
+
+  static int from(long link) {
+    return (int) (link >>> 32);
+  }
+
+  static int to(long link) {
+    return (int) link;
+  }
+
+  boolean hasNeighbours(int vertex) {
+    return offsets[vertex] < offsets[vertex + 1];
+  }
+
+  void forEachNeighbour(int vertex, IntConsumer consumer) {
+    for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+      consumer.accept(neighbours[i]);
+    }
+  }
+}
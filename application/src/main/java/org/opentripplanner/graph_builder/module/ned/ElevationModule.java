@@ -2,6 +2,8 @@ package org.opentripplanner.graph_builder.module.ned;
 
 import static org.opentripplanner.street.model.elevation.ElevationUtils.computeEllipsoidToGeoidDifference;
 
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -12,12 +14,13 @@ import java.io.ObjectOutputStream;
 import java.nio.file.Files;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAccumulator;
 import org.geotools.api.coverage.Coverage;
 import org.geotools.api.coverage.PointOutsideCoverageException;
 import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
@@ -27,7 +30,6 @@ import org.geotools.referencing.CRS;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
-import org.opentripplanner.framework.geometry.EncodedPolyline;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.ElevationFlattened;
@@ -110,18 +112,25 @@ public class ElevationModule implements GraphBuilderModule {
   private final ThreadLocal<Coverage> coverageInterpolatorThreadLocal = new ThreadLocal<>();
   private final DataImportIssueStore issueStore;
   /**
-   * A map of PackedCoordinateSequence values identified by Strings of encoded polylines.
+   * A map of PackedCoordinateSequence values identified by a hash of the edge geometry, see
+   * {@link #geometryKey(Geometry)}.
    * <p>
-   * Note: Since this map has a key of only the encoded polylines, it is assumed that all other
-   * inputs are the same as those that occurred in the graph build that produced this data.
+   * Note: Since this map has a key of only the geometry, it is assumed that all other inputs are
+   * the same as those that occurred in the graph build that produced this data.
    */
-  private HashMap<String, PackedCoordinateSequence> cachedElevations;
+  private TLongObjectHashMap<PackedCoordinateSequence> cachedElevations;
   // the first coordinate in the first StreetWithElevationEdge which is used for initializing coverage instances
   private Coordinate examplarCoordinate;
   /** Used only when the ElevationModule is requested to be ran with a single thread */
   private Coverage singleThreadedCoverageInterpolator;
-  private double minElevation = Double.MAX_VALUE;
-  private double maxElevation = Double.MIN_VALUE;
+  private final DoubleAccumulator minElevation = new DoubleAccumulator(
+    Math::min,
+    Double.MAX_VALUE
+  );
+  private final DoubleAccumulator maxElevation = new DoubleAccumulator(
+    Math::max,
+    Double.MIN_VALUE
+  );
 
   private final Map<Vertex, Double> elevationData;
 
@@ -180,9 +189,10 @@ public class ElevationModule implements GraphBuilderModule {
       // try to load in the cached elevation data
       try {
         ObjectInputStream in = new ObjectInputStream(new FileInputStream(cachedElevationsFile));
-        cachedElevations = (HashMap<String, PackedCoordinateSequence>) in.readObject();
+        cachedElevations = (TLongObjectHashMap<PackedCoordinateSequence>) in.readObject();
         LOG.info("Cached elevation data loaded into memory!");
-      } catch (IOException | ClassNotFoundException e) {
+      } catch (IOException | ClassNotFoundException | ClassCastException e) {
+        // A ClassCastException is thrown for a cache file written in an older format
         issueStore.add(
           new Graphwide(
             String.format(
@@ -195,7 +205,8 @@ public class ElevationModule implements GraphBuilderModule {
     }
     LOG.info("Setting street elevation profiles from digital elevation model...");
 
-    List<StreetEdge> streetsWithElevationEdges = new LinkedList<>();
+    // An ArrayList splits evenly for the parallel stream below, a LinkedList does not
+    List<StreetEdge> streetsWithElevationEdges = new ArrayList<>();
 
     for (Vertex gv : graph.getVertices()) {
       for (Edge ee : gv.getOutgoing()) {
@@ -255,7 +266,7 @@ public class ElevationModule implements GraphBuilderModule {
     LOG.info(progress.completeMessage());
 
     // Iterate again to find edges that had elevation calculated.
-    LinkedList<StreetEdge> edgesWithCalculatedElevations = new LinkedList<>();
+    List<StreetEdge> edgesWithCalculatedElevations = new ArrayList<>();
     for (StreetEdge edgeWithElevation : streetsWithElevationEdges) {
       if (edgeWithElevation.hasElevationExtension() && !edgeWithElevation.isElevationFlattened()) {
         edgesWithCalculatedElevations.add(edgeWithElevation);
@@ -265,10 +276,12 @@ public class ElevationModule implements GraphBuilderModule {
     if (writeCachedElevations) {
       // write information from edgesWithElevation to a new cache file for subsequent graph builds
       LOG.info("Writing elevation cache");
-      HashMap<String, PackedCoordinateSequence> newCachedElevations = new HashMap<>();
+      var newCachedElevations = new TLongObjectHashMap<PackedCoordinateSequence>(
+        edgesWithCalculatedElevations.size()
+      );
       for (StreetEdge streetEdge : edgesWithCalculatedElevations) {
         newCachedElevations.put(
-          EncodedPolyline.encode(streetEdge.getGeometry()).points(),
+          geometryKey(streetEdge.getGeometry()),
           streetEdge.getElevationProfile()
         );
       }
@@ -323,8 +336,8 @@ public class ElevationModule implements GraphBuilderModule {
   private void updateElevationMetadata(Graph graph) {
     if (nPointsOutsideDEM.get() < nPointsEvaluated.get()) {
       graph.hasElevation = true;
-      graph.minElevation = minElevation;
-      graph.maxElevation = maxElevation;
+      graph.minElevation = minElevation.get();
+      graph.maxElevation = maxElevation.get();
     }
   }
 
@@ -404,7 +417,7 @@ public class ElevationModule implements GraphBuilderModule {
     Geometry edgeGeometry = ee.getGeometry();
     if (cachedElevations != null) {
       PackedCoordinateSequence coordinateSequence = cachedElevations.get(
-        EncodedPolyline.encode(edgeGeometry).points()
+        geometryKey(edgeGeometry)
       );
       if (coordinateSequence != null) {
         // found a cached value! Set the elevation profile with the pre-calculated data.
@@ -423,10 +436,14 @@ public class ElevationModule implements GraphBuilderModule {
     try {
       Coordinate[] coords = edgeGeometry.getCoordinates();
 
-      List<Coordinate> coordList = new LinkedList<>();
+      // The samples as (distance, elevation) pairs, collected in a primitive array
+      var samples = new TDoubleArrayList(
+        2 * ((int) (ee.getDistanceMeters() / distanceBetweenSamplesM) + 2)
+      );
 
       // initial sample (x = 0)
-      coordList.add(new Coordinate(0, getElevation(coverage, coords[0])));
+      samples.add(0);
+      samples.add(getElevation(coverage, coords[0].x, coords[0].y));
 
       // iterate through coordinates calculating the edge length and creating intermediate elevation coordinates at
       // the regularly specified interval
@@ -446,13 +463,12 @@ public class ElevationModule implements GraphBuilderModule {
           // calculate percent of current segment that distance is between
           double pctAlongSeg = (sampleDistance - previousDistance) / curSegmentDistance;
           // add an elevation coordinate
-          coordList.add(
-            new Coordinate(
-              sampleDistance,
-              getElevation(
-                coverage,
-                new Coordinate(x1 + (pctAlongSeg * (x2 - x1)), y1 + (pctAlongSeg * (y2 - y1)))
-              )
+          samples.add(sampleDistance);
+          samples.add(
+            getElevation(
+              coverage,
+              x1 + (pctAlongSeg * (x2 - x1)),
+              y1 + (pctAlongSeg * (y2 - y1))
             )
           );
           sampleDistance += distanceBetweenSamplesM;
@@ -463,17 +479,20 @@ public class ElevationModule implements GraphBuilderModule {
       }
 
       // remove final-segment sample if it is less than half the distance between samples
-      if (edgeLenM - coordList.get(coordList.size() - 1).x < distanceBetweenSamplesM / 2) {
-        coordList.remove(coordList.size() - 1);
+      if (edgeLenM - samples.get(samples.size() - 2) < distanceBetweenSamplesM / 2) {
+        samples.remove(samples.size() - 2, 2);
       }
 
       // final sample (x = edge length)
-      coordList.add(new Coordinate(edgeLenM, getElevation(coverage, coords[coords.length - 1])));
+      var last = coords[coords.length - 1];
+      samples.add(edgeLenM);
+      samples.add(getElevation(coverage, last.x, last.y));
 
       // construct the PCS
-      Coordinate[] coordArr = new Coordinate[coordList.size()];
       PackedCoordinateSequence elevPCS = new PackedCoordinateSequence.Double(
-        coordList.toArray(coordArr)
+        samples.toArray(),
+        2,
+        0
       );
 
       setEdgeElevationProfile(ee, elevPCS);
@@ -507,7 +526,7 @@ public class ElevationModule implements GraphBuilderModule {
           // can cause deadlocks if not fully initialized. Therefore, make a single request for the first
           // point on the edge to initialize these other items.
           try {
-            getElevation(coverage, examplarCoordinate);
+            getElevation(coverage, examplarCoordinate.x, examplarCoordinate.y);
           } catch (ElevationLookupException e) {
             LOG.warn(
               "Error processing elevation for coordinate: {} due to error: {}",
@@ -544,16 +563,18 @@ public class ElevationModule implements GraphBuilderModule {
   }
 
   /**
-   * Method for retrieving the elevation at a given Coordinate.
+   * Method for retrieving the elevation at a given (x, y) pair.
    *
    * @param coverage the specific Coverage instance to use in order to avoid competition between
    *                 threads
-   * @param c        the coordinate (NAD83)
+   * @param x        the query longitude (NAD83)
+   * @param y        the query latitude (NAD83)
    * @return elevation in meters
    */
-  private double getElevation(Coverage coverage, Coordinate c) throws ElevationLookupException {
+  private double getElevation(Coverage coverage, double x, double y)
+    throws ElevationLookupException {
     try {
-      return getElevation(coverage, c.x, c.y);
+      return evaluateElevation(coverage, x, y);
     } catch (
       ArrayIndexOutOfBoundsException | PointOutsideCoverageException | TransformException e
     ) {
@@ -567,15 +588,9 @@ public class ElevationModule implements GraphBuilderModule {
   }
 
   /**
-   * Method for retrieving the elevation at a given (x, y) pair.
-   *
-   * @param coverage the specific Coverage instance to use in order to avoid competition between
-   *                 threads
-   * @param x        the query longitude (NAD83)
-   * @param y        the query latitude (NAD83)
-   * @return elevation in meters
+   * Evaluate the coverage at the given (x, y) pair, and keep track of the elevation statistics.
    */
-  private double getElevation(Coverage coverage, double x, double y)
+  private double evaluateElevation(Coverage coverage, double x, double y)
     throws PointOutsideCoverageException, TransformException {
     double[] values = new double[1];
     try {
@@ -594,8 +609,8 @@ public class ElevationModule implements GraphBuilderModule {
       (values[0] * gridCoverageFactory.elevationUnitMultiplier()) -
       (includeEllipsoidToGeoidDifference ? getApproximateEllipsoidToGeoidDifference(y, x) : 0);
 
-    minElevation = Math.min(minElevation, elevation);
-    maxElevation = Math.max(maxElevation, elevation);
+    minElevation.accumulate(elevation);
+    maxElevation.accumulate(elevation);
 
     nPointsEvaluated.incrementAndGet();
 
@@ -634,6 +649,24 @@ public class ElevationModule implements GraphBuilderModule {
     return difference;
   }
 
+  /**
+   * Create the key of an edge geometry in the elevation cache. The coordinates are rounded to the
+   * precision of OSM (7 decimals), and hashed into a 64-bit value. This is much smaller and faster
+   * than using the encoded polyline as the key.
+   */
+  static long geometryKey(Geometry geometry) {
+    long hash = 1;
+    for (Coordinate c : geometry.getCoordinates()) {
+      hash = 1_000_003 * hash + Math.round(c.x * 1e7);
+      hash = 1_000_003 * hash + Math.round(c.y * 1e7);
+    }
+    // Spread the bits, the rounded coordinates of nearby geometries differ only in the low bits
+    hash ^= (hash >>> 33);
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= (hash >>> 33);
+    return hash;
+  }
+
   /**
    * A custom exception wrapper for all known elevation lookup exceptions
    */
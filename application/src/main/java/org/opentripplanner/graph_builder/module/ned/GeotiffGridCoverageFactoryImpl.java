@@ -92,7 +92,20 @@ public class GeotiffGridCoverageFactoryImpl implements ElevationGridCoverageFact
     return coverage;
   }
 
+  /**
+   * A local, uncompressed file is passed to GeoTools as a file. GeoTools then reads the raster
+   * tiles on demand through random file access, and only the tiles in use are kept in the JAI
+   * tile cache. When given a stream, GeoTools must first cache the entire file, since the stream
+   * does not support random access.
+   */
   private Object getSource() {
+    var uri = input.uri();
+    if ("file".equals(uri.getScheme()) && !input.name().endsWith(".gz")) {
+      var file = new File(uri);
+      if (file.isFile()) {
+        return file;
+      }
+    }
     return input.asInputStream();
   }
 }
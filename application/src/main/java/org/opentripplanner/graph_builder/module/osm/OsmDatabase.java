@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
@@ -59,8 +60,8 @@ public class OsmDatabase {
 
   private final DataImportIssueStore issueStore;
 
-  /* Map of all nodes used in ways/areas keyed by their OSM ID */
-  private final TLongObjectMap<OsmNode> nodesById = new TLongObjectHashMap<>();
+  /* All nodes used in ways/areas keyed by their OSM ID */
+  private final OsmNodeStore nodesById = new OsmNodeStore();
 
   /* Map of all bike parking nodes, keyed by their OSM ID */
   private final TLongObjectMap<OsmNode> bikeParkingNodes = new TLongObjectHashMap<>();
@@ -138,6 +139,34 @@ public class OsmDatabase {
     return nodesById.get(nodeId);
   }
 
+  public boolean containsNode(long nodeId) {
+    return nodesById.contains(nodeId);
+  }
+
+  /**
+   * Return the node if it has tags, otherwise {@code null}. Unlike {@link #getNode(Long)} this
+   * does not create an {@link OsmNode} for nodes without tags.
+   */
+  @Nullable
+  public OsmNode getTaggedNode(long nodeId) {
+    return nodesById.getTagged(nodeId);
+  }
+
+  /**
+   * The coordinate of an existing node, without creating an {@link OsmNode}.
+   */
+  public Coordinate getNodeCoordinate(long nodeId) {
+    return new Coordinate(nodesById.lon(nodeId), nodesById.lat(nodeId));
+  }
+
+  public double getNodeLat(long nodeId) {
+    return nodesById.lat(nodeId);
+  }
+
+  public double getNodeLon(long nodeId) {
+    return nodesById.lon(nodeId);
+  }
+
   public OsmWay getWay(Long nodeId) {
     return waysById.get(nodeId);
   }
@@ -227,10 +256,10 @@ public class OsmDatabase {
       return;
     }
 
-    if (nodesById.containsKey(node.getId())) {
+    if (nodesById.contains(node.getId())) {
       return;
     }
-    nodesById.put(node.getId(), node);
+    nodesById.add(node);
   }
 
   public void addWay(OsmWay way) {
@@ -386,17 +415,25 @@ public class OsmDatabase {
 
       // For each segment of the way
       for (int i = 0; i < way.getNodeRefs().size() - 1; i++) {
-        OsmNode nA = nodesById.get(way.getNodeRefs().get(i));
-        OsmNode nB = nodesById.get(way.getNodeRefs().get(i + 1));
-        if (nA == null || nB == null) {
+        long idA = way.getNodeRefs().get(i);
+        long idB = way.getNodeRefs().get(i + 1);
+        if (!nodesById.contains(idA) || !nodesById.contains(idB)) {
           continue;
         }
 
-        Envelope env = new Envelope(nA.lon, nB.lon, nA.lat, nB.lat);
+        // Most segments do not cross an area, so only create the nodes when they do
+        Envelope env = new Envelope(
+          nodesById.lon(idA),
+          nodesById.lon(idB),
+          nodesById.lat(idA),
+          nodesById.lat(idB)
+        );
         List<RingSegment> ringSegments = spndx.query(env);
         if (ringSegments.size() == 0) {
           continue;
         }
+        OsmNode nA = nodesById.get(idA);
+        OsmNode nB = nodesById.get(idB);
         LineString seg = GeometryUtils.makeLineString(nA.lon, nA.lat, nB.lon, nB.lat);
 
         for (RingSegment ringSegment : ringSegments) {
@@ -632,7 +669,7 @@ public class OsmDatabase {
     node.setId(virtualNodeId);
     virtualNodeId--;
     waysNodeIds.add(node.getId());
-    nodesById.put(node.getId(), node);
+    nodesById.add(node);
     return node;
   }
 
@@ -683,7 +720,7 @@ public class OsmDatabase {
       TLongIterator longIterator = way.getNodeRefs().iterator();
       while (longIterator.hasNext()) {
         long nodeRef = longIterator.next();
-        if (!nodesById.containsKey(nodeRef)) {
+        if (!nodesById.contains(nodeRef)) {
           continue AREA;
         }
       }
@@ -733,7 +770,7 @@ public class OsmDatabase {
         TLongIterator wayNodeIterator = way.getNodeRefs().iterator();
         while (wayNodeIterator.hasNext()) {
           long nodeId = wayNodeIterator.next();
-          if (nodesById.containsKey(nodeId)) {
+          if (nodesById.contains(nodeId)) {
             TroveUtils.addToMapSet(areasForNode, nodeId, way);
           } else {
             // this area is missing some nodes, perhaps because it is on
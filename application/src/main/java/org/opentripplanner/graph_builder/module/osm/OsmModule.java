@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
@@ -282,10 +283,11 @@ public class OsmModule implements GraphBuilderModule {
       String lastLevel = null;
       for (TLongIterator iter = way.getNodeRefs().iterator(); iter.hasNext();) {
         long nodeId = iter.next();
-        OsmNode node = osmdb.getNode(nodeId);
-        if (node == null) continue WAY;
+        if (!osmdb.containsNode(nodeId)) continue WAY;
         boolean levelsDiffer = false;
-        String level = node.getTag("level");
+        String level = getTag(osmdb.getTaggedNode(nodeId), "level");
+        double lat = osmdb.getNodeLat(nodeId);
+        double lon = osmdb.getNodeLon(nodeId);
         if (lastLevel == null) {
           if (level != null) {
             levelsDiffer = true;
@@ -295,12 +297,10 @@ public class OsmModule implements GraphBuilderModule {
             levelsDiffer = true;
           }
         }
-        if (
-          nodeId != last && (node.lat != lastLat || node.lon != lastLon || levelsDiffer)
-        ) nodes.add(nodeId);
+        if (nodeId != last && (lat != lastLat || lon != lastLon || levelsDiffer)) nodes.add(nodeId);
         last = nodeId;
-        lastLon = node.lon;
-        lastLat = node.lat;
+        lastLon = lon;
+        lastLat = lat;
         lastLevel = level;
       }
 
@@ -320,9 +320,7 @@ public class OsmModule implements GraphBuilderModule {
       OsmNode osmStartNode = null;
 
       for (int i = 0; i < nodes.size() - 1; i++) {
-        OsmNode segmentStartOsmNode = osmdb.getNode(nodes.get(i));
-
-        if (segmentStartOsmNode == null) {
+        if (!osmdb.containsNode(nodes.get(i))) {
           continue;
         }
 
@@ -330,10 +328,11 @@ public class OsmModule implements GraphBuilderModule {
 
         if (osmStartNode == null) {
           startNode = nodes.get(i);
-          osmStartNode = segmentStartOsmNode;
+          osmStartNode = osmdb.getNode(startNode);
         }
-        // where the current edge might end
-        OsmNode osmEndNode = osmdb.getNode(endNode);
+        // where the current edge might end. Most nodes only add to the geometry, so the node is
+        // only created if it is an endpoint. The tags are only looked up for tagged nodes.
+        OsmNode taggedEndNode = osmdb.getTaggedNode(endNode);
 
         LineString geometry;
 
@@ -349,11 +348,16 @@ public class OsmModule implements GraphBuilderModule {
           vertexGenerator.intersectionNodes().containsKey(endNode) ||
           i == nodes.size() - 2 ||
           nodes.subList(0, i).contains(nodes.get(i)) ||
-          osmEndNode.hasTag("ele") ||
-          osmEndNode.isBoardingLocation() ||
-          osmEndNode.isBarrier()
+          (
+            taggedEndNode != null &&
+            (
+              taggedEndNode.hasTag("ele") ||
+              taggedEndNode.isBoardingLocation() ||
+              taggedEndNode.isBarrier()
+            )
+          )
         ) {
-          segmentCoordinates.add(osmEndNode.getCoordinate());
+          segmentCoordinates.add(osmdb.getNodeCoordinate(endNode));
 
           geometry =
             GeometryUtils
@@ -361,16 +365,17 @@ public class OsmModule implements GraphBuilderModule {
               .createLineString(segmentCoordinates.toArray(new Coordinate[0]));
           segmentCoordinates.clear();
         } else {
-          segmentCoordinates.add(osmEndNode.getCoordinate());
+          segmentCoordinates.add(osmdb.getNodeCoordinate(endNode));
           continue;
         }
+        OsmNode osmEndNode = osmdb.getNode(endNode);
 
         /* generate endpoints */
         if (startEndpoint == null) { // first iteration on this way
           // make or get a shared vertex for flat intersections,
           // one vertex per level for multilevel nodes like elevators
           startEndpoint = vertexGenerator.getVertexForOsmNode(osmStartNode, way);
-          String ele = segmentStartOsmNode.getTag("ele");
+          String ele = getTag(osmdb.getTaggedNode(nodes.get(i)), "ele");
           if (ele != null) {
             Double elevation = ElevationUtils.parseEleTag(ele);
             if (elevation != null) {
@@ -410,7 +415,7 @@ public class OsmModule implements GraphBuilderModule {
 
           applyEdgesToTurnRestrictions(way, startNode, endNode, street, backStreet);
           startNode = endNode;
-          osmStartNode = osmdb.getNode(startNode);
+          osmStartNode = osmEndNode;
         }
       }
 
@@ -422,6 +427,11 @@ public class OsmModule implements GraphBuilderModule {
     LOG.info(progress.completeMessage());
   }
 
+  @Nullable
+  private static String getTag(@Nullable OsmNode taggedNode, String key) {
+    return taggedNode == null ? null : taggedNode.getTag(key);
+  }
+
   private void validateBarriers() {
     List<BarrierVertex> vertices = graph.getVerticesOfType(BarrierVertex.class);
     vertices.forEach(bv -> bv.makeBarrierAtEndReachable());
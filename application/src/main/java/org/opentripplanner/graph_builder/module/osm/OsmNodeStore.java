@@ -0,0 +1,127 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TShortArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.osm.model.OsmNode;
+
+/**
+ * Store the OSM nodes used by ways and areas, keyed by their OSM id.
+ * <p>
+ * Most nodes have no tags, they only define the geometry of the ways. These are kept as
+ * coordinates in primitive arrays, instead of as {@link OsmNode} objects, and a new
+ * {@link OsmNode} is created each time such a node is requested. This roughly halves the memory
+ * used per node. Nodes with tags are kept as objects. {@link OsmNode} uses the id for equality,
+ * so the created instances can be used as keys in sets and maps.
+ * <p>
+ * The code visiting every node of every way should use {@link #lat(long)}, {@link #lon(long)}
+ * and {@link #getTagged(long)}, which do not create any objects.
+ */
+class OsmNodeStore {
+
+  private static final int NO_SLOT = -1;
+
+  private final TLongObjectMap<OsmNode> taggedNodes = new TLongObjectHashMap<>();
+
+  /** The index of each untagged node in the coordinate and provider arrays. */
+  private final TLongIntMap slotById = new TLongIntHashMap(
+    Constants.DEFAULT_CAPACITY,
+    Constants.DEFAULT_LOAD_FACTOR,
+    0,
+    NO_SLOT
+  );
+  private final TDoubleArrayList lat = new TDoubleArrayList();
+  private final TDoubleArrayList lon = new TDoubleArrayList();
+  private final TShortArrayList providerIndex = new TShortArrayList();
+
+  /** There are only a few providers, so we store the index into this list for each node. */
+  private final List<OsmProvider> providers = new ArrayList<>();
+
+  boolean contains(long id) {
+    return slotById.containsKey(id) || taggedNodes.containsKey(id);
+  }
+
+  /**
+   * Add a node, if a node with the same id already exist it is replaced.
+   */
+  void add(OsmNode node) {
+    if (node.hasTags()) {
+      taggedNodes.put(node.getId(), node);
+      return;
+    }
+    int slot = slotById.get(node.getId());
+    if (slot == NO_SLOT) {
+      slotById.put(node.getId(), lat.size());
+      lat.add(node.lat);
+      lon.add(node.lon);
+      providerIndex.add(providerIndex(node.getOsmProvider()));
+    } else {
+      lat.set(slot, node.lat);
+      lon.set(slot, node.lon);
+      providerIndex.set(slot, providerIndex(node.getOsmProvider()));
+    }
+  }
+
+  @Nullable
+  OsmNode get(long id) {
+    int slot = slotById.get(id);
+    if (slot == NO_SLOT) {
+      return taggedNodes.get(id);
+    }
+    var node = new OsmNode();
+    node.setId(id);
+    node.lat = lat.get(slot);
+    node.lon = lon.get(slot);
+    node.setOsmProvider(providers.get(providerIndex.get(slot)));
+    return node;
+  }
+
+  /**
+   * Return the node if it has tags, or {@code null} if it has no tags or does not exist. This
+   * does not create any objects, use it when only the tags of a node are needed.
+   */
+  @Nullable
+  OsmNode getTagged(long id) {
+    return taggedNodes.get(id);
+  }
+
+  /**
+   * The latitude of the node, without creating an {@link OsmNode}. The node must exist.
+   */
+  double lat(long id) {
+    int slot = slotById.get(id);
+    return slot == NO_SLOT ? taggedNodes.get(id).lat : lat.get(slot);
+  }
+
+  /**
+   * The longitude of the node, without creating an {@link OsmNode}. The node must exist.
+   */
+  double lon(long id) {
+    int slot = slotById.get(id);
+    return slot == NO_SLOT ? taggedNodes.get(id).lon : lon.get(slot);
+  }
+
+  int size() {
+    return slotById.size() + taggedNodes.size();
+  }
+
+  private short providerIndex(@Nullable OsmProvider provider) {
+    int index = providers.indexOf(provider);
+    if (index < 0) {
+      if (providers.size() == Short.MAX_VALUE) {
+        throw new IllegalStateException("Too many OSM providers: " + providers.size());
+      }
+      index = providers.size();
+      providers.add(provider);
+    }
+    return (short) index;
+  }
+}
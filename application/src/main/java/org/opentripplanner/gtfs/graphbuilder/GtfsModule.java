@@ -2,15 +2,22 @@ package org.opentripplanner.gtfs.graphbuilder;
 
 import static org.opentripplanner.utils.color.ColorUtils.computeBrightness;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.onebusaway.csv_entities.EntityHandler;
 import org.onebusaway.csv_entities.schema.DefaultEntitySchemaFactory;
 import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
@@ -59,6 +66,7 @@ import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.TimetableRepository;
 import org.opentripplanner.utils.color.Brightness;
+import org.opentripplanner.utils.time.DurationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,8 +83,14 @@ public class GtfsModule implements GraphBuilderModule {
   );
 
   private static final Logger LOG = LoggerFactory.getLogger(GtfsModule.class);
-  private final EntityHandler counter = new EntityCounter();
-  private final Set<String> agencyIdsSeen = new HashSet<>();
+
+  /**
+   * The number of feeds read at the same time, including the feed which is waited for. A loaded
+   * feed is kept in memory until it is mapped, so only one feed is read ahead of the feed being
+   * mapped.
+   */
+  private static final int MAX_FEEDS_IN_FLIGHT = 2;
+
   /**
    * @see BuildConfig#transitServiceStart
    * @see BuildConfig#transitServiceEnd
@@ -88,7 +102,6 @@ public class GtfsModule implements GraphBuilderModule {
   private final TimetableRepository timetableRepository;
   private final Graph graph;
   private final DataImportIssueStore issueStore;
-  private int nextAgencyId = 1; // used for generating agency IDs to resolve ID conflicts
 
   public GtfsModule(
     List<GtfsBundle> bundles,
@@ -128,16 +141,32 @@ public class GtfsModule implements GraphBuilderModule {
 
     boolean hasTransit = false;
 
-    Map<String, GtfsBundle> feedIdsEncountered = new HashMap<>();
+    // The next feed is read while the current feed is mapped. The feeds are mapped one at a time
+    // in the configured order, the mapping allocates the stop indices and merges the feed into the
+    // shared repositories.
+    int nThreads = Math.max(1, Math.min(gtfsBundles.size(), MAX_FEEDS_IN_FLIGHT));
+    var executor = Executors.newFixedThreadPool(
+      nThreads,
+      new ThreadFactoryBuilder().setNameFormat("gtfs-load-%d").setDaemon(true).build()
+    );
+    Queue<Future<LoadedFeed>> inFlight = new ArrayDeque<>();
+    var bundles = gtfsBundles.iterator();
 
     try {
-      for (GtfsBundle gtfsBundle : gtfsBundles) {
-        GtfsMutableRelationalDao gtfsDao = loadBundle(gtfsBundle);
+      verifyUniqueFeedIds();
 
-        final String feedId = gtfsBundle.getFeedId().getId();
-        verifyUniqueFeedId(gtfsBundle, feedIdsEncountered, feedId);
+      while (bundles.hasNext() || !inFlight.isEmpty()) {
+        // Read the next feed in the background, while the current feed is mapped
+        while (bundles.hasNext() && inFlight.size() < nThreads) {
+          var bundle = bundles.next();
+          inFlight.add(executor.submit(() -> loadFeed(bundle)));
+        }
+        LoadedFeed feed = await(inFlight.remove());
+        GtfsBundle gtfsBundle = feed.bundle();
+        GtfsMutableRelationalDao gtfsDao = feed.dao();
+        long mapStart = System.currentTimeMillis();
 
-        feedIdsEncountered.put(feedId, gtfsBundle);
+        final String feedId = gtfsBundle.getFeedId().getId();
 
         GTFSToOtpTransitServiceMapper mapper = new GTFSToOtpTransitServiceMapper(
           new OtpTransitServiceBuilder(timetableRepository.getSiteRepository(), issueStore),
@@ -205,10 +234,12 @@ public class GtfsModule implements GraphBuilderModule {
 
         fareServiceFactory.processGtfs(fareRulesService, otpTransitService);
         graph.setFareService(fareServiceFactory.makeFareService());
+
+        var mapTime = Duration.ofMillis(System.currentTimeMillis() - mapStart);
+        logBuildTime(feedId, feed.readTime(), mapTime);
       }
-    } catch (IOException e) {
-      throw new RuntimeException(e);
     } finally {
+      executor.shutdownNow();
       // Note the close method of each bundle should NOT throw an exception, so this
       // code should be safe without the try/catch block.
       gtfsBundles.forEach(GtfsBundle::close);
@@ -220,7 +251,9 @@ public class GtfsModule implements GraphBuilderModule {
   }
 
   /**
-   * Verifies that a feed id is not assigned twice.
+   * Verifies that a feed id is not assigned twice. This also resolves the feed ids, so they must be
+   * verified in the configured order before the feeds are read in parallel. Feed ids which are not
+   * configured or given in the feed_info are generated from a counter.
    * <p>
    * Duplicates can happen in the following cases:
    *  - the feed id is configured twice in build-config.json
@@ -229,22 +262,43 @@ public class GtfsModule implements GraphBuilderModule {
    * <p>
    * Debugging these cases is very confusing, so we prevent it from happening.
    */
-  private static void verifyUniqueFeedId(
-    GtfsBundle gtfsBundle,
-    Map<String, GtfsBundle> feedIdsEncountered,
-    String feedId
-  ) {
-    if (feedIdsEncountered.containsKey(feedId)) {
-      LOG.error(
-        "Feed id '{}' has been used for {} but it was already assigned to {}.",
-        feedId,
-        gtfsBundle,
-        feedIdsEncountered.get(feedId)
-      );
-      throw new IllegalArgumentException("Duplicate feed id: '%s'".formatted(feedId));
+  private void verifyUniqueFeedIds() {
+    Map<String, GtfsBundle> feedIdsEncountered = new HashMap<>();
+    for (GtfsBundle gtfsBundle : gtfsBundles) {
+      final String feedId = gtfsBundle.getFeedId().getId();
+      if (feedIdsEncountered.containsKey(feedId)) {
+        LOG.error(
+          "Feed id '{}' has been used for {} but it was already assigned to {}.",
+          feedId,
+          gtfsBundle,
+          feedIdsEncountered.get(feedId)
+        );
+        throw new IllegalArgumentException("Duplicate feed id: '%s'".formatted(feedId));
+      }
+      feedIdsEncountered.put(feedId, gtfsBundle);
+    }
+  }
+
+  private static LoadedFeed await(Future<LoadedFeed> task) {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
     }
   }
 
+  private static void logBuildTime(String feedId, Duration readTime, Duration mapTime) {
+    LOG.info(
+      "GTFS feed {} read in {} and mapped in {}.",
+      feedId,
+      DurationUtils.durationToStr(readTime),
+      DurationUtils.durationToStr(mapTime)
+    );
+  }
+
   @Override
   public void checkInputs() {
     for (GtfsBundle bundle : gtfsBundles) {
@@ -312,7 +366,21 @@ public class GtfsModule implements GraphBuilderModule {
     );
   }
 
-  private GtfsMutableRelationalDao loadBundle(GtfsBundle gtfsBundle) throws IOException {
+  /**
+   * Read a feed, this is called by the loader threads.
+   */
+  private static LoadedFeed loadFeed(GtfsBundle gtfsBundle) throws IOException {
+    long start = System.currentTimeMillis();
+    var dao = loadBundle(gtfsBundle);
+    return new LoadedFeed(gtfsBundle, dao, Duration.ofMillis(System.currentTimeMillis() - start));
+  }
+
+  private static GtfsMutableRelationalDao loadBundle(GtfsBundle gtfsBundle) throws IOException {
+    // The agency ids are scoped by the feed id, so the generated ids only need to be unique
+    // within the feed.
+    Set<String> agencyIdsSeen = new HashSet<>();
+    int nextAgencyId = 1;
+
     StoreImpl store = new StoreImpl(new GtfsRelationalDaoImpl());
     store.open();
     LOG.info("reading {}", gtfsBundle.toString());
@@ -329,7 +397,7 @@ public class GtfsModule implements GraphBuilderModule {
     reader.setInternStrings(true);
     reader.setDefaultAgencyId(gtfsFeedId.getId());
 
-    if (LOG.isDebugEnabled()) reader.addEntityHandler(counter);
+    if (LOG.isDebugEnabled()) reader.addEntityHandler(new EntityCounter());
 
     for (Class<?> entityClass : reader.getEntityClasses()) {
       if (skipEntityClass(entityClass)) {
@@ -417,7 +485,7 @@ public class GtfsModule implements GraphBuilderModule {
    * in the data. We only want to try to parse them when the feature flag is explicitly enabled as
    * it can easily lead to graph build failures.
    */
-  private boolean skipEntityClass(Class<?> entityClass) {
+  private static boolean skipEntityClass(Class<?> entityClass) {
     return OTPFeature.FaresV2.isOff() && FARES_V2_CLASSES.contains(entityClass);
   }
 
@@ -429,7 +497,7 @@ public class GtfsModule implements GraphBuilderModule {
    * textColor can be black or white. White for dark colors and black for light colors of
    * routeColor.
    */
-  private void generateRouteColor(Route route) {
+  private static void generateRouteColor(Route route) {
     String routeColor = route.getColor();
     //No route color - skipping
     if (routeColor == null) {
@@ -450,6 +518,12 @@ public class GtfsModule implements GraphBuilderModule {
     route.setTextColor(textColor);
   }
 
+  private record LoadedFeed(
+    GtfsBundle bundle,
+    GtfsMutableRelationalDao dao,
+    Duration readTime
+  ) {}
+
   private static class StoreImpl implements GenericMutableDao {
 
     private final GtfsMutableRelationalDao dao;
@@ -3,6 +3,7 @@ package org.opentripplanner.netex;
 import jakarta.xml.bind.JAXBException;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -15,7 +16,7 @@ import org.opentripplanner.netex.config.NetexFeedParameters;
 import org.opentripplanner.netex.index.NetexEntityIndex;
 import org.opentripplanner.netex.loader.GroupEntries;
 import org.opentripplanner.netex.loader.NetexDataSourceHierarchy;
-import org.opentripplanner.netex.loader.NetexXmlParser;
+import org.opentripplanner.netex.loader.NetexXmlDocumentReader;
 import org.opentripplanner.netex.loader.parser.NetexDocumentParser;
 import org.opentripplanner.netex.mapping.NetexMapper;
 import org.opentripplanner.netex.validation.Validator;
@@ -56,7 +57,8 @@ public class NetexBundle implements Closeable {
   private DataImportIssueStore issueStore;
   /** maps the NeTEx XML document to OTP transit model. */
   private NetexMapper mapper;
-  private NetexXmlParser xmlParser;
+  /** Parses the XML files ahead of indexing them. */
+  private NetexXmlDocumentReader documentReader;
 
   public NetexBundle(
     String feedId,
@@ -89,8 +91,7 @@ public class NetexBundle implements Closeable {
 
     this.issueStore = issueStore;
 
-    // init parser and mapper
-    xmlParser = new NetexXmlParser();
+    // init mapper
     mapper =
       new NetexMapper(
         transitBuilder,
@@ -104,7 +105,12 @@ public class NetexBundle implements Closeable {
       );
 
     // Load data
-    loadFileEntries();
+    try (var reader = new NetexXmlDocumentReader(entriesInReadOrder())) {
+      documentReader = reader;
+      loadFileEntries();
+    } finally {
+      documentReader = null;
+    }
 
     return transitBuilder;
   }
@@ -146,6 +152,20 @@ public class NetexBundle implements Closeable {
     NetexDocumentParser.finishUp();
   }
 
+  /**
+   * List all entries in the order they are loaded by {@link #loadFileEntries()}, so they can be
+   * parsed ahead in parallel.
+   */
+  private List<DataSource> entriesInReadOrder() {
+    var entries = new ArrayList<DataSource>();
+    hierarchy.sharedEntries().forEach(entries::add);
+    for (GroupEntries group : hierarchy.groups()) {
+      entries.addAll(group.sharedEntries());
+      entries.addAll(group.independentEntries());
+    }
+    return entries;
+  }
+
   /**
    * make a new index and pushes it on the index stack, before executing the task and at the end pop
    * of the index.
@@ -185,7 +205,7 @@ public class NetexBundle implements Closeable {
     try {
       LOG.info("reading entity {}: {}", fileDescription, entry.name());
       issueStore.startProcessingSource(entry.name());
-      PublicationDeliveryStructure doc = xmlParser.parseXmlDoc(entry.asInputStream());
+      PublicationDeliveryStructure doc = documentReader.read(entry);
       NetexDocumentParser.parseAndPopulateIndex(index, doc, ignoredFeatures);
     } catch (JAXBException e) {
       throw new RuntimeException(e.getMessage(), e);
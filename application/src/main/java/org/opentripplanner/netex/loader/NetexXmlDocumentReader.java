@@ -0,0 +1,97 @@
+package org.opentripplanner.netex.loader;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.xml.bind.JAXBException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.opentripplanner.datastore.api.DataSource;
+import org.rutebanken.netex.model.PublicationDeliveryStructure;
+
+/**
+ * Parse the NeTEx XML files of a bundle on a pool of worker threads, ahead of the thread reading
+ * the documents. The documents are returned in the same order as the entries are given, so the
+ * NeTEx index is still populated by one thread, in the order given by the
+ * {@link NetexDataSourceHierarchy}.
+ * <p>
+ * At most {@link #MAX_DOCUMENTS_IN_FLIGHT} documents are parsed or waiting to be read at any
+ * time, regardless of the number of processors. A parsed document is kept in memory until it is
+ * indexed, and a single NeTEx file may be large, so the lookahead must stay small.
+ * <p>
+ * This class is not thread-safe, the documents must be read by one thread.
+ */
+public class NetexXmlDocumentReader implements AutoCloseable {
+
+  private static final int MAX_DOCUMENTS_IN_FLIGHT = 3;
+
+  private final ExecutorService executor;
+  private final ThreadLocal<NetexXmlParser> parser = ThreadLocal.withInitial(NetexXmlParser::new);
+  private final Iterator<DataSource> entries;
+  private final Queue<ParseTask> inFlight = new ArrayDeque<>();
+
+  /**
+   * @param entries All entries to parse, in the order they are read.
+   */
+  public NetexXmlDocumentReader(List<DataSource> entries) {
+    this(
+      entries,
+      Math.max(1, Math.min(MAX_DOCUMENTS_IN_FLIGHT, Runtime.getRuntime().availableProcessors() - 1))
+    );
+  }
+
+  NetexXmlDocumentReader(List<DataSource> entries, int nThreads) {
+    this.entries = entries.iterator();
+    this.executor =
+      Executors.newFixedThreadPool(
+        nThreads,
+        new ThreadFactoryBuilder().setNameFormat("netex-xml-%d").setDaemon(true).build()
+      );
+  }
+
+  /**
+   * Return the parsed document of the given entry. The entries must be read in the same order as
+   * they were given in the constructor.
+   */
+  public PublicationDeliveryStructure read(DataSource entry) throws JAXBException {
+    submitParseTasks();
+    var task = inFlight.poll();
+    if (task == null || task.entry() != entry) {
+      throw new IllegalStateException("NeTEx entries read out of order: " + entry.name());
+    }
+    try {
+      return task.document().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof JAXBException jaxbException) {
+        throw jaxbException;
+      }
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private void submitParseTasks() {
+    while (inFlight.size() < MAX_DOCUMENTS_IN_FLIGHT && entries.hasNext()) {
+      var entry = entries.next();
+      inFlight.add(
+        new ParseTask(entry, executor.submit(() -> parser.get().parseXmlDoc(entry.asInputStream())))
+      );
+    }
+  }
+
+  private record ParseTask(DataSource entry, Future<PublicationDeliveryStructure> document) {}
+}
@@ -7,7 +7,12 @@ import jakarta.xml.bind.Unmarshaller;
 import java.io.InputStream;
 import org.rutebanken.netex.model.PublicationDeliveryStructure;
 
-/** Simple wrapper to perform typesafe xml parsing and simple error handling. */
+/**
+ * Simple wrapper to perform typesafe xml parsing and simple error handling.
+ * <p>
+ * The JAXB context is expensive to create, so it is shared by all parsers. A parser is not
+ * thread-safe, use one parser per thread.
+ */
 public class NetexXmlParser {
 
   /** used to parse the XML. */
@@ -32,7 +37,7 @@ public class NetexXmlParser {
   /** factory method for unmarshaller */
   private static Unmarshaller createUnmarshaller() {
     try {
-      return JAXBContext.newInstance(PublicationDeliveryStructure.class).createUnmarshaller();
+      return ContextHolder.CONTEXT.createUnmarshaller();
     } catch (JAXBException e) {
       // This is a programming error - not expected!
       // We abort early and also allow for this to happen in the constructor;
@@ -40,4 +45,18 @@ public class NetexXmlParser {
       throw new RuntimeException(e);
     }
   }
+
+  /** The context is thread-safe, and created the first time a parser is created. */
+  private static final class ContextHolder {
+
+    private static final JAXBContext CONTEXT = createContext();
+
+    private static JAXBContext createContext() {
+      try {
+        return JAXBContext.newInstance(PublicationDeliveryStructure.class);
+      } catch (JAXBException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
 }
@@ -0,0 +1,205 @@
+package org.opentripplanner.osm;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import crosby.binary.Fileformat;
+import crosby.binary.Osmformat;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+
+/**
+ * Read the blocks of an OSM PBF file. The blocks are decompressed and decoded by a pool of worker
+ * threads, while the decoded blocks are handed to the {@link OsmParser} in file order on the
+ * calling thread. The OSM database is therefore still populated by one thread, in the same order
+ * as the file.
+ * <p>
+ * The first pass builds an index with the entity types in each block. The following passes use
+ * the index to skip the blocks without entities of interest, without decompressing them. Since
+ * PBF files are usually sorted with all nodes first, the way and node passes only decode the
+ * blocks they need.
+ * <p>
+ * This class is not thread-safe, use one instance for all passes over the same file.
+ */
+class OsmPbfReader implements AutoCloseable {
+
+  private static final String HEADER_BLOCK = "OSMHeader";
+  private static final String DATA_BLOCK = "OSMData";
+
+  /**
+   * Limit the number of decoded blocks waiting for the parser, a decoded block is about 8 000
+   * entities.
+   */
+  private static final int BLOCKS_IN_FLIGHT_PER_THREAD = 4;
+
+  private final ExecutorService executor;
+  private final int maxBlocksInFlight;
+
+  /** The entity types in each block, in file order. {@code null} until the first pass is done. */
+  @Nullable
+  private List<Set<OsmParserPhase>> blockIndex = null;
+
+  OsmPbfReader() {
+    this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+  }
+
+  OsmPbfReader(int nThreads) {
+    this.executor =
+      Executors.newFixedThreadPool(
+        nThreads,
+        new ThreadFactoryBuilder().setNameFormat("osm-pbf-%d").setDaemon(true).build()
+      );
+    this.maxBlocksInFlight = nThreads * BLOCKS_IN_FLIGHT_PER_THREAD;
+  }
+
+  /**
+   * Read all blocks in the given stream which contain entities parsed in the given phase.
+   */
+  void read(InputStream inputStream, OsmParser parser, OsmParserPhase phase) throws IOException {
+    var input = new DataInputStream(inputStream);
+    var index = new ArrayList<Set<OsmParserPhase>>();
+    Queue<Future<DecodedBlock>> inFlight = new ArrayDeque<>();
+    int blockNr = 0;
+
+    Fileformat.BlobHeader header;
+    while ((header = readBlobHeader(input)) != null) {
+      if (blockIndex != null && !blockIndex.get(blockNr).contains(phase)) {
+        input.skipNBytes(header.getDatasize());
+      } else {
+        var type = header.getType();
+        var blob = readFully(input, header.getDatasize());
+        inFlight.add(executor.submit(() -> decode(type, blob)));
+        if (inFlight.size() >= maxBlocksInFlight) {
+          index.add(parse(inFlight.remove(), parser));
+        }
+      }
+      ++blockNr;
+    }
+    while (!inFlight.isEmpty()) {
+      index.add(parse(inFlight.remove(), parser));
+    }
+    if (blockIndex == null) {
+      blockIndex = index;
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private static Set<OsmParserPhase> parse(Future<DecodedBlock> task, OsmParser parser)
+    throws IOException {
+    DecodedBlock block;
+    try {
+      block = task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+    if (block.header() != null) {
+      parser.parse(block.header());
+    }
+    if (block.data() != null) {
+      parser.parse(block.data());
+    }
+    return block.content();
+  }
+
+  @Nullable
+  private static Fileformat.BlobHeader readBlobHeader(DataInputStream input) throws IOException {
+    int size;
+    try {
+      size = input.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    return Fileformat.BlobHeader.parseFrom(readFully(input, size));
+  }
+
+  private static byte[] readFully(DataInputStream input, int size) throws IOException {
+    var bytes = new byte[size];
+    input.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Decompress and decode a block, this is called by the worker threads.
+   */
+  private static DecodedBlock decode(String type, byte[] bytes) throws IOException {
+    var blob = Fileformat.Blob.parseFrom(bytes);
+    return switch (type) {
+      case HEADER_BLOCK -> new DecodedBlock(
+        Osmformat.HeaderBlock.parseFrom(uncompress(blob)),
+        null,
+        EnumSet.allOf(OsmParserPhase.class)
+      );
+      case DATA_BLOCK -> {
+        var data = Osmformat.PrimitiveBlock.parseFrom(uncompress(blob));
+        yield new DecodedBlock(null, data, content(data));
+      }
+      // Unknown blocks should be skipped according to the specification
+      default -> new DecodedBlock(null, null, EnumSet.noneOf(OsmParserPhase.class));
+    };
+  }
+
+  private static byte[] uncompress(Fileformat.Blob blob) throws IOException {
+    if (blob.hasRaw()) {
+      return blob.getRaw().toByteArray();
+    }
+    if (!blob.hasZlibData()) {
+      throw new IOException("Unsupported PBF blob compression, only zlib is supported.");
+    }
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(blob.getZlibData().toByteArray());
+      var result = new byte[blob.getRawSize()];
+      inflater.inflate(result);
+      if (!inflater.finished()) {
+        throw new IOException("PBF blob is larger than the given raw size.");
+      }
+      return result;
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt PBF blob: " + e.getMessage(), e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static Set<OsmParserPhase> content(Osmformat.PrimitiveBlock block) {
+    var content = EnumSet.noneOf(OsmParserPhase.class);
+    for (var group : block.getPrimitivegroupList()) {
+      if (group.getNodesCount() > 0 || group.hasDense()) {
+        content.add(OsmParserPhase.Nodes);
+      }
+      if (group.getWaysCount() > 0) {
+        content.add(OsmParserPhase.Ways);
+      }
+      if (group.getRelationsCount() > 0) {
+        content.add(OsmParserPhase.Relations);
+      }
+    }
+    return content;
+  }
+
+  private record DecodedBlock(
+    @Nullable Osmformat.HeaderBlock header,
+    @Nullable Osmformat.PrimitiveBlock data,
+    Set<OsmParserPhase> content
+  ) {}
+}
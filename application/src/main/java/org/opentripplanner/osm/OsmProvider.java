@@ -1,6 +1,5 @@
 package org.opentripplanner.osm;
 
-import crosby.binary.file.BlockInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -12,6 +11,7 @@ import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.framework.application.OtpFileNames;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+import org.opentripplanner.osm.model.OsmTagKeys;
 import org.opentripplanner.osm.tagmapping.OsmTagMapper;
 import org.opentripplanner.osm.tagmapping.OsmTagMapperSource;
 import org.opentripplanner.osm.wayproperty.WayPropertySet;
@@ -22,7 +22,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
- * the ways, then the nodes are also loaded.
+ * the ways, then the nodes are also loaded. The blocks are decoded in parallel, and the second and
+ * third pass only decode the blocks with ways and nodes, see {@link OsmPbfReader}.
  */
 public class OsmProvider {
 
@@ -38,6 +39,7 @@ public class OsmProvider {
   private final OsmTagMapper osmTagMapper;
 
   private final WayPropertySet wayPropertySet;
+  private final OsmTagKeys tagKeys = new OsmTagKeys();
   private byte[] cachedBytes = null;
 
   /** For tests */
@@ -67,16 +69,16 @@ public class OsmProvider {
   }
 
   public void readOsm(OsmDatabase osmdb) {
-    try {
+    try (var reader = new OsmPbfReader()) {
       OsmParser parser = new OsmParser(osmdb, this);
 
-      parsePhase(parser, OsmParserPhase.Relations);
+      parsePhase(reader, parser, OsmParserPhase.Relations);
       osmdb.doneFirstPhaseRelations();
 
-      parsePhase(parser, OsmParserPhase.Ways);
+      parsePhase(reader, parser, OsmParserPhase.Ways);
       osmdb.doneSecondPhaseWays();
 
-      parsePhase(parser, OsmParserPhase.Nodes);
+      parsePhase(reader, parser, OsmParserPhase.Nodes);
       osmdb.doneThirdPhaseNodes();
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
@@ -105,21 +107,11 @@ public class OsmProvider {
     return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
   }
 
-  private void parsePhase(OsmParser parser, OsmParserPhase phase) throws IOException {
+  private void parsePhase(OsmPbfReader reader, OsmParser parser, OsmParserPhase phase)
+    throws IOException {
     parser.setPhase(phase);
-    BlockInputStream in = null;
-    try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
-    } finally {
-      // Close
-      try {
-        if (in != null) {
-          in.close();
-        }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
-      }
+    try (var in = createInputStream(phase)) {
+      reader.read(in, parser, phase);
     }
   }
 
@@ -155,4 +147,11 @@ public class OsmProvider {
   public WayPropertySet getWayPropertySet() {
     return wayPropertySet;
   }
+
+  /**
+   * The dictionary of the tag keys of the entities read by this provider.
+   */
+  public OsmTagKeys getTagKeys() {
+    return tagKeys;
+  }
 }
@@ -75,6 +75,20 @@ public class OsmNode extends OsmWithTags {
     return super.overridePermissions(permission);
   }
 
+  /**
+   * Nodes with the same id are equal. Nodes without tags are not kept as objects during the graph
+   * build, so the same node may be represented by more than one instance.
+   */
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof OsmNode other && id == other.id;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(id);
+  }
+
   @Override
   public String url() {
     return String.format("https://www.openstreetmap.org/node/%d", getId());
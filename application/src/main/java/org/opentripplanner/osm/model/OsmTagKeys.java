@@ -0,0 +1,54 @@
+package org.opentripplanner.osm.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A dictionary mapping OSM tag keys to int ids, used by the tags of the entities to store their
+ * keys compactly. A planet file has hundreds of thousands of distinct keys, many of them one-off
+ * or misspelled, so the dictionary is not global. Each {@link org.opentripplanner.osm.OsmProvider}
+ * owns one dictionary, shared by the entities it creates, and the dictionary is released together
+ * with the provider and its entities when the graph build is done.
+ * <p>
+ * This class is thread-safe, the parser may add keys from several threads.
+ */
+public final class OsmTagKeys {
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private volatile String[] keys = new String[256];
+
+  /**
+   * Return the id of the given key, or -1 if no entity using this dictionary has the key.
+   */
+  int lookup(String key) {
+    var id = ids.get(key);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Return the id of the given key, adding the key to the dictionary if it is not there.
+   */
+  int idOf(String key) {
+    var id = ids.get(key);
+    return id == null ? add(key) : id;
+  }
+
+  String key(int id) {
+    return keys[id];
+  }
+
+  private synchronized int add(String key) {
+    var id = ids.get(key);
+    if (id != null) {
+      return id;
+    }
+    int newId = ids.size();
+    if (newId == keys.length) {
+      keys = Arrays.copyOf(keys, keys.length * 2);
+    }
+    keys[newId] = key;
+    ids.put(key, newId);
+    return newId;
+  }
+}
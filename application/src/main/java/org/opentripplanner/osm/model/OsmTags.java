@@ -0,0 +1,111 @@
+package org.opentripplanner.osm.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * A compact store for the tags of one OSM entity. The keys are encoded as ids from a key
+ * dictionary, see {@link OsmTagKeys}, and kept in a sorted int array, with the values in a
+ * parallel array. A lookup is a dictionary lookup followed by a binary search over the few tags
+ * of the entity. A key which does not exist in any entity sharing the dictionary is rejected by
+ * the dictionary lookup alone.
+ * <p>
+ * Compared to a {@code HashMap} per entity, this uses a fraction of the memory. The values are
+ * not encoded, since most of them (names, refs, ...) are unique, and the parser already
+ * deduplicates the strings.
+ * <p>
+ * The keys must be lower case. This class is not thread-safe, but the key dictionary is.
+ */
+final class OsmTags {
+
+  private static final int[] NO_KEYS = new int[0];
+  private static final String[] NO_VALUES = new String[0];
+
+  private final OsmTagKeys dictionary;
+  private int[] keys = NO_KEYS;
+  private String[] values = NO_VALUES;
+
+  OsmTags(OsmTagKeys dictionary) {
+    this.dictionary = dictionary;
+  }
+
+  boolean isEmpty() {
+    return keys.length == 0;
+  }
+
+  boolean containsKey(String key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Nullable
+  String get(String key) {
+    int i = indexOf(key);
+    return i < 0 ? null : values[i];
+  }
+
+  void put(String key, String value) {
+    int keyId = dictionary.idOf(key);
+    int i = Arrays.binarySearch(keys, keyId);
+    if (i >= 0) {
+      values[i] = value;
+      return;
+    }
+    int insertAt = -(i + 1);
+    int size = keys.length;
+    var newKeys = new int[size + 1];
+    var newValues = new String[size + 1];
+    System.arraycopy(keys, 0, newKeys, 0, insertAt);
+    System.arraycopy(values, 0, newValues, 0, insertAt);
+    newKeys[insertAt] = keyId;
+    newValues[insertAt] = value;
+    System.arraycopy(keys, insertAt, newKeys, insertAt + 1, size - insertAt);
+    System.arraycopy(values, insertAt, newValues, insertAt + 1, size - insertAt);
+    this.keys = newKeys;
+    this.values = newValues;
+  }
+
+  /**
+   * Return the tags as an unmodifiable map. The map is created on each call, so avoid this in
+   * performance critical code.
+   */
+  Map<String, String> asMap() {
+    var map = new LinkedHashMap<String, String>();
+    for (int i = 0; i < keys.length; i++) {
+      map.put(dictionary.key(keys[i]), values[i]);
+    }
+    return Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * Return the tags with the given key, or a key starting with the given key followed by a colon,
+   * like {@code name} and {@code name:fr} for the key {@code name}. Unlike {@link #asMap()}, this
+   * does not create a map of all the tags.
+   */
+  Map<String, String> withKeyPrefix(String prefix) {
+    var map = new HashMap<String, String>();
+    for (int i = 0; i < keys.length; i++) {
+      String key = dictionary.key(keys[i]);
+      if (
+        key.startsWith(prefix) &&
+        (key.length() == prefix.length() || key.charAt(prefix.length()) == ':')
+      ) {
+        map.put(key, values[i]);
+      }
+    }
+    return map;
+  }
+
+  @Override
+  public String toString() {
+    return asMap().toString();
+  }
+
+  private int indexOf(String key) {
+    int keyId = dictionary.lookup(key);
+    return keyId < 0 ? -1 : Arrays.binarySearch(keys, keyId);
+  }
+}
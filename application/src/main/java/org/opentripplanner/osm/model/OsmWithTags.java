@@ -53,8 +53,14 @@ public class OsmWithTags {
   private static final Set<String> DEFAULT_LEVEL = Set.of("0");
   private static final Consumer<String> NO_OP = i -> {};
 
+  /**
+   * The key dictionary for entities without an {@link OsmProvider}. It is shared, so the entities
+   * do not each allocate a dictionary of their own.
+   */
+  private static final OsmTagKeys DEFAULT_TAG_KEYS = new OsmTagKeys();
+
   /* To save memory this is only created when an entity actually has tags. */
-  private Map<String, String> tags;
+  private OsmTags tags;
 
   protected long id;
 
@@ -88,7 +94,7 @@ public class OsmWithTags {
    * Adds a tag.
    */
   public void addTag(OsmTag tag) {
-    if (tags == null) tags = new HashMap<>();
+    if (tags == null) tags = createTags();
 
     tags.put(tag.getK().toLowerCase(), tag.getV());
   }
@@ -102,7 +108,7 @@ public class OsmWithTags {
     }
 
     if (tags == null) {
-      tags = new HashMap<>();
+      tags = createTags();
     }
 
     tags.put(key.toLowerCase(), value);
@@ -110,10 +116,18 @@ public class OsmWithTags {
   }
 
   /**
-   * The tags of an entity.
+   * The tags of an entity. The map is created on each call, use {@link #getTag(String)} and
+   * {@link #hasTag(String)} to look up single tags.
    */
   public Map<String, String> getTags() {
-    return Objects.requireNonNullElse(tags, Map.of());
+    return tags == null ? Map.of() : tags.asMap();
+  }
+
+  /**
+   * Does the entity have any tags?
+   */
+  public boolean hasTags() {
+    return tags != null && !tags.isEmpty();
   }
 
   /**
@@ -193,10 +207,7 @@ public class OsmWithTags {
   @Nullable
   public String getTag(String tag) {
     tag = tag.toLowerCase();
-    if (tags != null && tags.containsKey(tag)) {
-      return tags.get(tag);
-    }
-    return null;
+    return tags == null ? null : tags.get(tag);
   }
 
   /**
@@ -350,7 +361,7 @@ public class OsmWithTags {
    */
   public boolean isTag(String tag, String value) {
     tag = tag.toLowerCase();
-    if (tags != null && tags.containsKey(tag) && value != null) {
+    if (tags != null && value != null) {
       return value.equals(tags.get(tag));
     }
 
@@ -441,15 +452,7 @@ public class OsmWithTags {
   }
 
   private Map<String, String> getTagsByPrefix(String prefix) {
-    Map<String, String> out = new HashMap<>();
-    for (Map.Entry<String, String> entry : tags.entrySet()) {
-      String k = entry.getKey();
-      if (k.equals(prefix) || k.startsWith(prefix + ":")) {
-        out.put(k, entry.getValue());
-      }
-    }
-
-    return out;
+    return tags == null ? Map.of() : tags.withKeyPrefix(prefix);
   }
 
   /**
@@ -657,6 +660,14 @@ public class OsmWithTags {
     this.osmProvider = provider;
   }
 
+  /**
+   * The tags use the key dictionary of the provider which created the entity. Entities created
+   * without a provider, like synthetic entities in tests, share {@link #DEFAULT_TAG_KEYS}.
+   */
+  private OsmTags createTags() {
+    return new OsmTags(osmProvider == null ? DEFAULT_TAG_KEYS : osmProvider.getTagKeys());
+  }
+
   /**
    * Determines whether this OSM way is considered routable. The majority of routable ways are those
    * with a highway= tag (which includes everything from motorways to hiking trails). Anything with
@@ -5,6 +5,7 @@ import static java.util.stream.Collectors.toMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
@@ -25,33 +26,24 @@ public class RaptorTransferIndex {
   }
 
   public static RaptorTransferIndex create(
-    List<List<Transfer>> transfersByStopIndex,
+    TransfersByStopIndex transfersByStopIndex,
     StreetSearchRequest request
   ) {
-    var forwardTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
-    var reversedTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
-    StreetMode mode = request.mode();
+    // Traversing the street edges of the transfers is the expensive part, so the transfers from
+    // each stop are mapped in parallel. The result is in stop index order.
+    List<List<RaptorTransfer>> forwardTransfers = IntStream
+      .range(0, transfersByStopIndex.size())
+      .parallel()
+      .mapToObj(fromStop -> mapForwardTransfers(transfersByStopIndex, fromStop, request))
+      .toList();
 
+    var reversedTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
     for (int i = 0; i < transfersByStopIndex.size(); i++) {
       reversedTransfers.add(new ArrayList<>());
     }
 
-    for (int fromStop = 0; fromStop < transfersByStopIndex.size(); fromStop++) {
-      // The transfers are filtered so that there is only one possible directional transfer
-      // for a stop pair.
-      var transfers = transfersByStopIndex
-        .get(fromStop)
-        .stream()
-        .filter(transfer -> transfer.allowsMode(mode))
-        .flatMap(s -> s.asRaptorTransfer(request).stream())
-        .collect(
-          toMap(RaptorTransfer::stop, Function.identity(), (a, b) -> a.c1() < b.c1() ? a : b)
-        )
-        .values();
-
-      forwardTransfers.add(new ArrayList<>(transfers));
-
-      for (RaptorTransfer forwardTransfer : transfers) {
+    for (int fromStop = 0; fromStop < forwardTransfers.size(); fromStop++) {
+      for (RaptorTransfer forwardTransfer : forwardTransfers.get(fromStop)) {
         reversedTransfers
           .get(forwardTransfer.stop())
           .add(DefaultRaptorTransfer.reverseOf(fromStop, forwardTransfer));
@@ -68,4 +60,27 @@ public class RaptorTransferIndex {
   public List<RaptorTransfer> getReversedTransfers(int stopIndex) {
     return reversedTransfers[stopIndex];
   }
+
+  /**
+   * The transfers are filtered so that there is only one possible directional transfer for a
+   * stop pair.
+   * <p>
+   * This method runs IN PARALLEL.
+   */
+  private static List<RaptorTransfer> mapForwardTransfers(
+    TransfersByStopIndex transfersByStopIndex,
+    int fromStop,
+    StreetSearchRequest request
+  ) {
+    StreetMode mode = request.mode();
+    var transfers = transfersByStopIndex
+      .transfersAllowingMode(fromStop, mode)
+      .stream()
+      .flatMap(s -> s.asRaptorTransfer(request).stream())
+      .collect(
+        toMap(RaptorTransfer::stop, Function.identity(), (a, b) -> a.c1() < b.c1() ? a : b)
+      )
+      .values();
+    return new ArrayList<>(transfers);
+  }
 }
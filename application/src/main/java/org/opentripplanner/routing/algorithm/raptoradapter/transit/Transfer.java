@@ -7,6 +7,7 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.raptor.api.model.RaptorCostConverter;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
@@ -39,7 +40,7 @@ public class Transfer {
   public Transfer(int toStop, List<Edge> edges, EnumSet<StreetMode> modes) {
     this.toStop = toStop;
     this.edges = edges;
-    this.distanceMeters = (int) edges.stream().mapToDouble(Edge::getDistanceMeters).sum();
+    this.distanceMeters = distanceMeters(edges);
     this.modes = Collections.unmodifiableSet(modes);
   }
 
@@ -50,6 +51,21 @@ public class Transfer {
     this.modes = Collections.unmodifiableSet(modes);
   }
 
+  /**
+   * Used by {@link TransfersByStopIndex} to create a transfer from the stored fields, the set of
+   * modes must be unmodifiable.
+   */
+  Transfer(int toStop, int distanceMeters, @Nullable List<Edge> edges, Set<StreetMode> modes) {
+    this.toStop = toStop;
+    this.distanceMeters = distanceMeters;
+    this.edges = edges;
+    this.modes = modes;
+  }
+
+  static int distanceMeters(List<Edge> edges) {
+    return (int) edges.stream().mapToDouble(Edge::getDistanceMeters).sum();
+  }
+
   public List<Coordinate> getCoordinates() {
     List<Coordinate> coordinates = new ArrayList<>();
     if (edges == null) {
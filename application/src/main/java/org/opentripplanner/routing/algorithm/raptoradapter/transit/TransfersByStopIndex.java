@@ -0,0 +1,150 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.Edge;
+
+/**
+ * The transfers from each stop, indexed by the from stop index. The transfers are stored in
+ * compressed sparse row (CSR) arrays: the transfers of stop {@code s} are at the positions
+ * {@code [firstTransferByStop[s], firstTransferByStop[s+1])} of the to-stop, distance, edges and
+ * modes arrays. This uses a fraction of the memory of a list of {@link Transfer} objects for each
+ * stop, which matters in dense networks with many transfers.
+ * <p>
+ * The edges are not copied, the edge lists are shared with the path transfers in the transit
+ * model. The sets of modes are deduplicated, there are only a few distinct sets. {@link Transfer}
+ * instances are created on demand, when the transfers are mapped for a request, and only for the
+ * transfers allowing the requested mode.
+ * <p>
+ * THREAD SAFETY: This class is immutable after it is built.
+ */
+public class TransfersByStopIndex {
+
+  private static final int NO_EDGES = -1;
+
+  private final int[] firstTransferByStop;
+  private final int[] toStops;
+  private final int[] distancesMeters;
+
+  /** The index into {@link #edges} for each transfer, or {@link #NO_EDGES}. */
+  private final int[] edgesIndex;
+
+  private final List<List<Edge>> edges;
+
+  /** The index into {@link #modes} for each transfer. */
+  private final int[] modesIndex;
+
+  private final List<Set<StreetMode>> modes;
+
+  private TransfersByStopIndex(Builder builder) {
+    this.firstTransferByStop = builder.firstTransferByStop.toArray();
+    this.toStops = builder.toStops.toArray();
+    this.distancesMeters = builder.distancesMeters.toArray();
+    this.edgesIndex = builder.edgesIndex.toArray();
+    this.edges = List.copyOf(builder.edges);
+    this.modesIndex = builder.modesIndex.toArray();
+    this.modes = List.copyOf(builder.modes);
+  }
+
+  public static Builder of() {
+    return new Builder();
+  }
+
+  /** The number of stops, including the stops without transfers. */
+  public int size() {
+    return firstTransferByStop.length - 1;
+  }
+
+  /**
+   * Create the transfers from the given stop allowing the given mode.
+   */
+  public List<Transfer> transfersAllowingMode(int fromStop, StreetMode mode) {
+    int end = firstTransferByStop[fromStop + 1];
+    var result = new ArrayList<Transfer>(end - firstTransferByStop[fromStop]);
+    for (int i = firstTransferByStop[fromStop]; i < end; ++i) {
+      if (modes.get(modesIndex[i]).contains(mode)) {
+        result.add(transfer(i));
+      }
+    }
+    return result;
+  }
+
+  private Transfer transfer(int i) {
+    return new Transfer(
+      toStops[i],
+      distancesMeters[i],
+      edgesIndex[i] == NO_EDGES ? null : edges.get(edgesIndex[i]),
+      modes.get(modesIndex[i])
+    );
+  }
+
+  public static class Builder {
+
+    private final TIntArrayList firstTransferByStop = new TIntArrayList();
+    private final TIntArrayList toStops = new TIntArrayList();
+    private final TIntArrayList distancesMeters = new TIntArrayList();
+    private final TIntArrayList edgesIndex = new TIntArrayList();
+    private final List<List<Edge>> edges = new ArrayList<>();
+    private final TIntArrayList modesIndex = new TIntArrayList();
+    private final List<Set<StreetMode>> modes = new ArrayList<>();
+    private final Map<Set<StreetMode>, Integer> modesIndexBySet = new HashMap<>();
+
+    private Builder() {}
+
+    /**
+     * Start adding the transfers from the next stop. This must be called once for each stop, in
+     * stop index order, also for the stops without transfers.
+     */
+    public Builder nextStop() {
+      firstTransferByStop.add(toStops.size());
+      return this;
+    }
+
+    /**
+     * Add a transfer from the current stop following the given street edges. The list of edges
+     * is not copied.
+     */
+    public Builder addTransfer(int toStop, List<Edge> edges, EnumSet<StreetMode> modes) {
+      add(toStop, Transfer.distanceMeters(edges), this.edges.size(), modes);
+      this.edges.add(edges);
+      return this;
+    }
+
+    /**
+     * Add a transfer from the current stop without street edges.
+     */
+    public Builder addTransfer(int toStop, int distanceMeters, EnumSet<StreetMode> modes) {
+      add(toStop, distanceMeters, NO_EDGES, modes);
+      return this;
+    }
+
+    public TransfersByStopIndex build() {
+      firstTransferByStop.add(toStops.size());
+      return new TransfersByStopIndex(this);
+    }
+
+    private void add(int toStop, int distanceMeters, int edgesIndex, EnumSet<StreetMode> modes) {
+      if (firstTransferByStop.isEmpty()) {
+        throw new IllegalStateException("nextStop() must be called before adding transfers.");
+      }
+      toStops.add(toStop);
+      distancesMeters.add(distanceMeters);
+      this.edgesIndex.add(edgesIndex);
+      Integer index = modesIndexBySet.get(modes);
+      if (index == null) {
+        index = this.modes.size();
+        var copy = EnumSet.copyOf(modes);
+        this.modes.add(Collections.unmodifiableSet(copy));
+        modesIndexBySet.put(copy, index);
+      }
+      modesIndex.add(index);
+    }
+  }
+}
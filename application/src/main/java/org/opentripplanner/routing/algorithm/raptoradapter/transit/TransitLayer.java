@@ -6,6 +6,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
@@ -34,14 +36,24 @@ public class TransitLayer {
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
    * The same trip pattern can therefore have multiple running dates and trip pattern is not
    * required to "run" on its service date.
+   * <p>
+   * If the {@link #tripPatternsRunningOnDateMapper} is set, the dates are added the first time
+   * they are requested. Otherwise, all dates are added when the transit layer is created.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
 
   /**
-   * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
-   * is a field of the Transfer object.
+   * Map the trip patterns running on a date which is not yet in the
+   * {@link #tripPatternsRunningOnDate}, or {@code null} if all dates are mapped up front.
    */
-  private final List<List<Transfer>> transfersByStopIndex;
+  @Nullable
+  private final Function<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDateMapper;
+
+  /**
+   * The transfers from each stop, indexed by the from stop index. The {@link Transfer} objects are
+   * created when the transfers are mapped for a request.
+   */
+  private final TransfersByStopIndex transfersByStopIndex;
 
   /**
    * Trip to trip transfers like with properties like guaranteedTransfer, staySeated and priority.
@@ -61,12 +73,14 @@ public class TransitLayer {
 
   /**
    * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
-   * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * copy of the map is made. This is sufficient, as the TransitLayerUpdater will replace entire
+   * keys and their values in the map. The dates not mapped yet are mapped by the copy when they
+   * are requested.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
       transitLayer.tripPatternsRunningOnDate,
+      transitLayer.tripPatternsRunningOnDateMapper,
       transitLayer.transfersByStopIndex,
       transitLayer.transferService,
       transitLayer.siteRepository,
@@ -79,7 +93,7 @@ public class TransitLayer {
 
   public TransitLayer(
     Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate,
-    List<List<Transfer>> transfersByStopIndex,
+    TransfersByStopIndex transfersByStopIndex,
     TransferService transferService,
     SiteRepository siteRepository,
     RaptorRequestTransferCache transferCache,
@@ -87,7 +101,35 @@ public class TransitLayer {
     TransferIndexGenerator transferIndexGenerator,
     @Nullable int[] stopBoardAlightTransferCosts
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this(
+      tripPatternsRunningOnDate,
+      null,
+      transfersByStopIndex,
+      transferService,
+      siteRepository,
+      transferCache,
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightTransferCosts
+    );
+  }
+
+  public TransitLayer(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate,
+    @Nullable Function<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDateMapper,
+    TransfersByStopIndex transfersByStopIndex,
+    TransferService transferService,
+    SiteRepository siteRepository,
+    RaptorRequestTransferCache transferCache,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    @Nullable int[] stopBoardAlightTransferCosts
+  ) {
+    this.tripPatternsRunningOnDate =
+      tripPatternsRunningOnDateMapper == null
+        ? new HashMap<>(tripPatternsRunningOnDate)
+        : new ConcurrentHashMap<>(tripPatternsRunningOnDate);
+    this.tripPatternsRunningOnDateMapper = tripPatternsRunningOnDateMapper;
     this.transfersByStopIndex = transfersByStopIndex;
     this.transferService = transferService;
     this.siteRepository = siteRepository;
@@ -108,7 +150,8 @@ public class TransitLayer {
    * happening on that date. Trip pattern can have multiple running dates.
    */
   public Collection<TripPatternForDate> getTripPatternsForRunningDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    var tripPatterns = tripPatternsForRunningDate(date);
+    return tripPatterns == null ? List.of() : tripPatterns;
   }
 
   public int getStopCount() {
@@ -121,7 +164,7 @@ public class TransitLayer {
    * or departures is happening on that date. Trip pattern can have multiple running dates.
    */
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
+    List<TripPatternForDate> tripPatternForDate = tripPatternsForRunningDate(runningPeriodDate);
     return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
   }
 
@@ -189,4 +232,22 @@ public class TransitLayer {
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
     this.constrainedTransfers = constrainedTransfers;
   }
+
+  /**
+   * Return the trip patterns running on the given date, mapping them if not done yet. Dates
+   * without any trip patterns are not stored, so {@code null} is returned for them.
+   */
+  @Nullable
+  private List<TripPatternForDate> tripPatternsForRunningDate(LocalDate date) {
+    if (tripPatternsRunningOnDateMapper == null) {
+      return tripPatternsRunningOnDate.get(date);
+    }
+    return tripPatternsRunningOnDate.computeIfAbsent(
+      date,
+      d -> {
+        var tripPatterns = tripPatternsRunningOnDateMapper.apply(d);
+        return tripPatterns.isEmpty() ? null : tripPatterns;
+      }
+    );
+  }
 }
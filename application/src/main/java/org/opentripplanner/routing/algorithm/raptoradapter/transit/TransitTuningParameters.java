@@ -61,6 +61,11 @@ public interface TransitTuningParameters {
     public List<RouteRequest> transferCacheRequests() {
       return List.of();
     }
+
+    @Override
+    public int transitLayerPreloadDays() {
+      return -1;
+    }
   };
 
   /**
@@ -124,4 +129,11 @@ public interface TransitTuningParameters {
    * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache}
    */
   List<RouteRequest> transferCacheRequests();
+
+  /**
+   * The number of days, starting with today, to map the trip patterns for when the transit layer
+   * is created. The other days are mapped the first time they are searched. A negative value maps
+   * all service days up front.
+   */
+  int transitLayerPreloadDays();
 }
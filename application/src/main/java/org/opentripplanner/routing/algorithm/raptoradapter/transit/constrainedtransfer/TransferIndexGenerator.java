@@ -13,6 +13,8 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.ConstrainedTransfer;
 import org.opentripplanner.model.transfer.RouteStationTransferPoint;
 import org.opentripplanner.model.transfer.RouteStopTransferPoint;
@@ -29,6 +31,17 @@ import org.opentripplanner.transit.model.timetable.Trip;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Generate the constrained transfers for each pattern, used by Raptor.
+ * <p>
+ * The transfer points of each constrained transfer are resolved to the pattern stop positions in
+ * parallel, and kept between generations. When realtime patterns are added, only the transfers
+ * with a transfer point matching a trip, route, stop or station of the added patterns are resolved
+ * again. The result is the same as generating all transfers from scratch.
+ * <p>
+ * This class is not thread-safe, the realtime trips must be added by the same thread generating
+ * the transfers.
+ */
 public class TransferIndexGenerator {
 
   private static final Logger LOG = LoggerFactory.getLogger(TransferIndexGenerator.class);
@@ -42,6 +55,17 @@ public class TransferIndexGenerator {
   private final Map<Route, Set<RoutingTripPattern>> patternsByRoute = new HashMap<>();
   private final Map<Trip, Set<RoutingTripPattern>> patternsByTrip = new HashMap<>();
 
+  /** The entities of the realtime patterns added since the transfers were last generated. */
+  private final Set<Object> changedEntities = new HashSet<>();
+
+  /** The resolved transfers from the last generation, in the same order as the transfers. */
+  private List<ResolvedTransfer> resolvedTransfers = List.of();
+
+  @Nullable
+  private ConstrainedTransfersForPatterns lastResult = null;
+
+  private int lastNumberOfPatterns = 0;
+
   public TransferIndexGenerator(
     Collection<ConstrainedTransfer> constrainedTransfers,
     Collection<TripPattern> tripPatterns
@@ -52,41 +76,57 @@ public class TransferIndexGenerator {
 
   public ConstrainedTransfersForPatterns generateTransfers() {
     int nPatterns = RoutingTripPattern.indexCounter();
+    var transfers = List.copyOf(constrainedTransfers);
+
+    if (
+      lastResult != null &&
+      changedEntities.isEmpty() &&
+      nPatterns == lastNumberOfPatterns &&
+      isResolved(transfers)
+    ) {
+      return lastResult;
+    }
+
+    // THIS CODE RUNS IN PARALLEL
+    var previous = resolvedTransfers;
+    resolvedTransfers =
+      IntStream
+        .range(0, transfers.size())
+        .parallel()
+        .mapToObj(i -> {
+          var tx = transfers.get(i);
+          if (i < previous.size() && previous.get(i).transfer() == tx && !isChanged(tx)) {
+            return previous.get(i);
+          }
+          return resolve(tx);
+        })
+        .toList();
+    // END PARALLEL CODE
+
+    changedEntities.clear();
+
     TransferForPatternByStopPos[] forwardTransfers = new TransferForPatternByStopPos[nPatterns];
     TransferForPatternByStopPos[] reverseTransfers = new TransferForPatternByStopPos[nPatterns];
 
-    for (ConstrainedTransfer tx : constrainedTransfers) {
-      var c = tx.getTransferConstraint();
-      // Only add transfers which have an effect on the Raptor routing here.
-      // Some transfers only have the priority set, and that is used in optimized-
-      // transfers, but not in Raptor.
-      if (!c.includeInRaptorRouting()) {
-        continue;
-      }
-
-      try {
-        findTPoints(tx.getFrom(), ALIGHT)
-          .stream()
-          .filter(TPoint::canAlight)
-          .forEachOrdered(fromPoint -> {
-            for (var toPoint : findTPoints(tx.getTo(), BOARD)) {
-              if (toPoint.canBoard() && !fromPoint.equals(toPoint)) {
-                fromPoint.addTransferConstraints(tx, toPoint, forwardTransfers, reverseTransfers);
-              }
-            }
-          });
-      } catch (Exception e) {
-        LOG.error("Unable to generate transfers: {}. Affected transfer: {}", e, tx);
+    // The transfers are added in the same order as the constrained transfers, so the order of
+    // transfers with the same specificity ranking does not depend on the parallel resolving.
+    for (ResolvedTransfer resolved : resolvedTransfers) {
+      var tx = resolved.transfer();
+      for (TPointPair it : resolved.points()) {
+        it.from().addTransferConstraints(tx, it.to(), forwardTransfers, reverseTransfers);
       }
     }
 
     sortTransfers(forwardTransfers);
     sortTransfers(reverseTransfers);
 
-    return new ConstrainedTransfersForPatterns(
-      Arrays.asList(forwardTransfers),
-      Arrays.asList(reverseTransfers)
-    );
+    lastResult =
+      new ConstrainedTransfersForPatterns(
+        Arrays.asList(forwardTransfers),
+        Arrays.asList(reverseTransfers)
+      );
+    lastNumberOfPatterns = nPatterns;
+    return lastResult;
   }
 
   /**
@@ -95,6 +135,79 @@ public class TransferIndexGenerator {
    */
   public void addRealtimeTrip(TripPattern tripPattern, List<Trip> trips) {
     setupPattern(tripPattern, trips);
+
+    changedEntities.add(tripPattern.getRoute());
+    changedEntities.addAll(trips);
+    for (StopLocation stop : tripPattern.getStops()) {
+      changedEntities.add(stop);
+      if (stop.getParentStation() != null) {
+        changedEntities.add(stop.getParentStation());
+      }
+    }
+  }
+
+  /**
+   * Find the pairs of from and to transfer points the given transfer apply to. This is called
+   * in parallel, and only reads the pattern index.
+   */
+  private ResolvedTransfer resolve(ConstrainedTransfer tx) {
+    // Only add transfers which have an effect on the Raptor routing here.
+    // Some transfers only have the priority set, and that is used in optimized-
+    // transfers, but not in Raptor.
+    if (!tx.getTransferConstraint().includeInRaptorRouting()) {
+      return new ResolvedTransfer(tx, List.of());
+    }
+
+    var points = new ArrayList<TPointPair>();
+    try {
+      findTPoints(tx.getFrom(), ALIGHT)
+        .stream()
+        .filter(TPoint::canAlight)
+        .forEachOrdered(fromPoint -> {
+          for (var toPoint : findTPoints(tx.getTo(), BOARD)) {
+            if (toPoint.canBoard() && !fromPoint.equals(toPoint)) {
+              points.add(new TPointPair(fromPoint, toPoint));
+            }
+          }
+        });
+    } catch (Exception e) {
+      LOG.error("Unable to generate transfers: {}. Affected transfer: {}", e, tx);
+    }
+    return new ResolvedTransfer(tx, points);
+  }
+
+  private boolean isResolved(List<ConstrainedTransfer> transfers) {
+    if (transfers.size() != resolvedTransfers.size()) {
+      return false;
+    }
+    for (int i = 0; i < transfers.size(); ++i) {
+      if (transfers.get(i) != resolvedTransfers.get(i).transfer()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Return {@code true} if the set of patterns one of the transfer points of the given transfer
+   * apply to may have changed.
+   */
+  private boolean isChanged(ConstrainedTransfer tx) {
+    return !changedEntities.isEmpty() && (isChanged(tx.getFrom()) || isChanged(tx.getTo()));
+  }
+
+  private boolean isChanged(TransferPoint txPoint) {
+    if (txPoint.isStationTransferPoint()) {
+      return changedEntities.contains(txPoint.asStationTransferPoint().getStation());
+    } else if (txPoint.isStopTransferPoint()) {
+      return changedEntities.contains(txPoint.asStopTransferPoint().getStop());
+    } else if (txPoint.isRouteStationTransferPoint()) {
+      return changedEntities.contains(txPoint.asRouteStationTransferPoint().getRoute());
+    } else if (txPoint.isRouteStopTransferPoint()) {
+      return changedEntities.contains(txPoint.asRouteStopTransferPoint().getRoute());
+    } else {
+      return changedEntities.contains(txPoint.asTripTransferPoint().getTrip());
+    }
   }
 
   /**
@@ -125,11 +238,11 @@ public class TransferIndexGenerator {
 
   /** Sort trips in a TransferForPatternByStopPos, if it is not null */
   private void sortTransfers(TransferForPatternByStopPos[] transfers) {
-    for (var transfersForStop : transfers) {
-      if (transfersForStop != null) {
-        transfersForStop.sortOnSpecificityRanking();
-      }
-    }
+    Arrays
+      .stream(transfers)
+      .parallel()
+      .filter(Objects::nonNull)
+      .forEach(TransferForPatternByStopPos::sortOnSpecificityRanking);
   }
 
   private Collection<TPoint> findTPoints(TransferPoint txPoint, boolean boarding) {
@@ -325,6 +438,13 @@ public class TransferIndexGenerator {
     return List.copyOf(res);
   }
 
+  /**
+   * A constrained transfer and the pairs of from and to transfer points it applies to.
+   */
+  private record ResolvedTransfer(ConstrainedTransfer transfer, List<TPointPair> points) {}
+
+  private record TPointPair(TPoint from, TPoint to) {}
+
   private static class TPoint {
 
     RoutingTripPattern pattern;
@@ -4,6 +4,7 @@ import static org.opentripplanner.routing.algorithm.raptoradapter.transit.mapper
 
 import com.google.common.collect.ArrayListMultimap;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -14,7 +15,7 @@ import java.util.Set;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.raptor.api.model.RaptorCostConverter;
-import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransfersByStopIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
@@ -61,15 +62,27 @@ public class TransitLayerMapper {
   }
 
   private TransitLayer map(TransitTuningParameters tuningParameters) {
-    HashMap<LocalDate, List<TripPatternForDate>> tripPatternsByStopByDate;
-    List<List<Transfer>> transfersByStopIndex;
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsByStopByDate;
+    TripPatternsRunningOnDateMapper tripPatternsRunningOnDateMapper = null;
+    TransfersByStopIndex transfersByStopIndex;
     ConstrainedTransfersForPatterns constrainedTransfers = null;
 
     LOG.info("Mapping transitLayer from TimetableRepository...");
 
     Collection<TripPattern> allTripPatterns = transitService.listTripPatterns();
 
-    tripPatternsByStopByDate = mapTripPatterns(allTripPatterns);
+    int preloadDays = tuningParameters.transitLayerPreloadDays();
+    if (preloadDays < 0) {
+      tripPatternsByStopByDate = mapTripPatterns(allTripPatterns);
+    } else {
+      tripPatternsRunningOnDateMapper =
+        new TripPatternsRunningOnDateMapper(
+          allTripPatterns,
+          transitService.listServiceDates(),
+          new TripPatternForDateMapper(transitService.getServiceCodesRunningForDate())
+        );
+      tripPatternsByStopByDate = preloadTripPatterns(tripPatternsRunningOnDateMapper, preloadDays);
+    }
 
     transfersByStopIndex = mapTransfers(siteRepository, transitService);
 
@@ -86,6 +99,7 @@ public class TransitLayerMapper {
 
     return new TransitLayer(
       tripPatternsByStopByDate,
+      tripPatternsRunningOnDateMapper,
       transfersByStopIndex,
       transitService.getTransferService(),
       siteRepository,
@@ -141,6 +155,28 @@ public class TransitLayerMapper {
     return keyByRunningPeriodDates(tripPatternForDates);
   }
 
+  /**
+   * Map the trip patterns running on the given number of days, starting with today. The other
+   * days are mapped by the {@code mapper} when they are requested.
+   */
+  private Map<LocalDate, List<TripPatternForDate>> preloadTripPatterns(
+    TripPatternsRunningOnDateMapper mapper,
+    int days
+  ) {
+    var timeZone = transitService.getTimeZone();
+    var today = LocalDate.now(timeZone == null ? ZoneId.systemDefault() : timeZone);
+    var result = new HashMap<LocalDate, List<TripPatternForDate>>();
+    for (int i = 0; i < days; ++i) {
+      var date = today.plusDays(i);
+      var tripPatterns = mapper.apply(date);
+      if (!tripPatterns.isEmpty()) {
+        result.put(date, tripPatterns);
+      }
+    }
+    LOG.info("Mapped trip patterns for the next {} days, other days are mapped on demand.", days);
+    return result;
+  }
+
   /**
    * Returns a map of TripPatternsForDate objects by their active dates.
    */
@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -10,6 +11,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.Timetable;
@@ -20,6 +22,7 @@ import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.opentripplanner.transit.service.TransitEditorService;
+import org.opentripplanner.updater.spi.UpdaterMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +58,11 @@ public class TransitLayerUpdater {
 
   private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
 
+  private final Timer updateTimer = UpdaterMetrics.sharedTimer(
+    "transit_layer_update",
+    "Time spent updating the realtime transit layer from updated timetables"
+  );
+
   public TransitLayerUpdater(TransitEditorService transitService) {
     this.transitService = transitService;
   }
@@ -224,10 +232,8 @@ public class TransitLayerUpdater {
     // guarantee that the reference is set after all the fields have been updated.
     transitService.setRealtimeTransitLayer(realtimeTransitLayer);
 
-    LOG.debug(
-      "UPDATING {} tripPatterns took {} ms",
-      updatedTimetables.size(),
-      System.currentTimeMillis() - startTime
-    );
+    long duration = System.currentTimeMillis() - startTime;
+    updateTimer.record(duration, TimeUnit.MILLISECONDS);
+    LOG.debug("UPDATING {} tripPatterns took {} ms", updatedTimetables.size(), duration);
   }
 }
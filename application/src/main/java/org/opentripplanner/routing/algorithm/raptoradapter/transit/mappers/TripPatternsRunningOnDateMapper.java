@@ -0,0 +1,102 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.FrequencyEntry;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+/**
+ * Map the trip patterns running on a date the first time the date is requested, instead of
+ * mapping all service dates when the transit layer is created. The trip patterns are mapped one
+ * service date at a time and kept by service date, so a {@link TripPatternForDate} running on
+ * more than one date is the same instance in all of its running dates, like when all dates are
+ * mapped up front.
+ * <p>
+ * A trip may run on the dates before or after its service date, if it departs before midnight or
+ * arrives after midnight. The number of days to look back and forward is found from the
+ * scheduled trip times, with one extra day to account for daylight saving time changes.
+ * <p>
+ * THREAD SAFETY: This is called by the routing threads, the mapped service dates are kept in a
+ * concurrent map. The trip patterns and their scheduled timetables must not be modified.
+ */
+class TripPatternsRunningOnDateMapper implements Function<LocalDate, List<TripPatternForDate>> {
+
+  private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+  private final Collection<TripPattern> tripPatterns;
+  private final Set<LocalDate> serviceDates;
+  private final TripPatternForDateMapper tripPatternForDateMapper;
+  private final Map<LocalDate, List<TripPatternForDate>> tripPatternsByServiceDate = new ConcurrentHashMap<>();
+
+  /** The number of days the earliest trip runs before its service date, as a negative number. */
+  private final int minDaysFromServiceDate;
+
+  /** The number of days the latest trip runs after its service date. */
+  private final int maxDaysFromServiceDate;
+
+  TripPatternsRunningOnDateMapper(
+    Collection<TripPattern> tripPatterns,
+    Set<LocalDate> serviceDates,
+    TripPatternForDateMapper tripPatternForDateMapper
+  ) {
+    this.tripPatterns = tripPatterns;
+    this.serviceDates = serviceDates;
+    this.tripPatternForDateMapper = tripPatternForDateMapper;
+
+    int minTime = 0;
+    int maxTime = 0;
+    for (TripPattern pattern : tripPatterns) {
+      var timetable = pattern.getScheduledTimetable();
+      for (TripTimes tripTimes : timetable.getTripTimes()) {
+        minTime = Math.min(minTime, tripTimes.getDepartureTime(0));
+        maxTime = Math.max(maxTime, tripTimes.getArrivalTime(tripTimes.getNumStops() - 1));
+      }
+      for (FrequencyEntry frequency : timetable.getFrequencyEntries()) {
+        minTime = Math.min(minTime, frequency.startTime);
+        maxTime = Math.max(maxTime, frequency.endTime);
+      }
+    }
+    this.minDaysFromServiceDate = Math.floorDiv(minTime, SECONDS_PER_DAY) - 1;
+    this.maxDaysFromServiceDate = Math.floorDiv(maxTime, SECONDS_PER_DAY) + 1;
+  }
+
+  /**
+   * Return the trip patterns running on the given date, the list is empty if nothing runs.
+   */
+  @Override
+  public List<TripPatternForDate> apply(LocalDate runningDate) {
+    var result = new ArrayList<TripPatternForDate>();
+    for (int days = minDaysFromServiceDate; days <= maxDaysFromServiceDate; ++days) {
+      var serviceDate = runningDate.minusDays(days);
+      if (!serviceDates.contains(serviceDate)) {
+        continue;
+      }
+      for (var it : tripPatternsByServiceDate.computeIfAbsent(serviceDate, this::mapServiceDate)) {
+        if (it.getRunningPeriodDates().contains(runningDate)) {
+          result.add(it);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * This method runs IN PARALLEL.
+   */
+  private List<TripPatternForDate> mapServiceDate(LocalDate serviceDate) {
+    return tripPatterns
+      .parallelStream()
+      .map(it -> tripPatternForDateMapper.map(it.getScheduledTimetable(), serviceDate))
+      .filter(Objects::nonNull)
+      .toList();
+  }
+}
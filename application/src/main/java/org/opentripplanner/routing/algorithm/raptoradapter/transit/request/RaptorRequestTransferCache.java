@@ -3,11 +3,10 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
-import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransfersByStopIndex;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.BikePreferences;
@@ -27,25 +26,32 @@ public class RaptorRequestTransferCache {
   private final LoadingCache<CacheKey, RaptorTransferIndex> transferCache;
 
   public RaptorRequestTransferCache(int maximumSize) {
-    transferCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(cacheLoader());
+    // The stats are reported as hit, miss and load time metrics, see MetricsLogging
+    transferCache =
+      CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build(cacheLoader());
   }
 
   public LoadingCache<CacheKey, RaptorTransferIndex> getTransferCache() {
     return transferCache;
   }
 
-  public void put(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
+  public void put(TransfersByStopIndex transfersByStopIndex, RouteRequest request) {
     final CacheKey cacheKey = new CacheKey(transfersByStopIndex, request);
+    long start = System.currentTimeMillis();
     final RaptorTransferIndex raptorTransferIndex = RaptorTransferIndex.create(
       transfersByStopIndex,
       cacheKey.request
     );
 
-    LOG.info("Initializing cache with request: {}", cacheKey.options);
+    LOG.info(
+      "Initializing cache with request: {} ({} ms)",
+      cacheKey.options,
+      System.currentTimeMillis() - start
+    );
     transferCache.put(cacheKey, raptorTransferIndex);
   }
 
-  public RaptorTransferIndex get(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
+  public RaptorTransferIndex get(TransfersByStopIndex transfersByStopIndex, RouteRequest request) {
     try {
       return transferCache.get(new CacheKey(transfersByStopIndex, request));
     } catch (ExecutionException e) {
@@ -57,19 +63,25 @@ public class RaptorRequestTransferCache {
     return new CacheLoader<>() {
       @Override
       public RaptorTransferIndex load(CacheKey cacheKey) {
-        LOG.info("Adding runtime request to cache: {}", cacheKey.options);
-        return RaptorTransferIndex.create(cacheKey.transfersByStopIndex, cacheKey.request);
+        long start = System.currentTimeMillis();
+        var index = RaptorTransferIndex.create(cacheKey.transfersByStopIndex, cacheKey.request);
+        LOG.info(
+          "Adding runtime request to cache: {} ({} ms)",
+          cacheKey.options,
+          System.currentTimeMillis() - start
+        );
+        return index;
       }
     };
   }
 
   private static class CacheKey {
 
-    private final List<List<Transfer>> transfersByStopIndex;
+    private final TransfersByStopIndex transfersByStopIndex;
     private final StreetSearchRequest request;
     private final StreetRelevantOptions options;
 
-    private CacheKey(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
+    private CacheKey(TransfersByStopIndex transfersByStopIndex, RouteRequest request) {
       this.transfersByStopIndex = transfersByStopIndex;
       this.request = StreetSearchRequestMapper.mapToTransferRequest(request).build();
       this.options = new StreetRelevantOptions(this.request);
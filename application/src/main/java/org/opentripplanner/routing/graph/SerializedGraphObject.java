@@ -15,6 +15,8 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
@@ -55,6 +57,11 @@ public class SerializedGraphObject implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SerializedGraphObject.class);
 
+  /**
+   * The Kryo default of 4 KiB results in a lot of small reads for a graph of several GiB.
+   */
+  private static final int INPUT_BUFFER_SIZE = 1 << 20;
+
   public final Graph graph;
   public final TimetableRepository timetableRepository;
   public final WorldEnvelopeRepository worldEnvelopeRepository;
@@ -172,7 +179,7 @@ public class SerializedGraphObject implements Serializable {
     // TODO store version information, halt load if versions mismatch
     try (inputStream) {
       LOG.info("Reading graph from '{}'", sourceDescription);
-      Input input = new Input(inputStream);
+      Input input = new Input(inputStream, INPUT_BUFFER_SIZE);
 
       validateGraphSerializationId(
         input.readBytes(GraphFileHeader.headerLength()),
@@ -187,9 +194,15 @@ public class SerializedGraphObject implements Serializable {
         serObj.graph.getDistanceBetweenElevationSamples()
       );
       LOG.debug("Graph read.");
-      serObj.reconstructEdgeLists();
-      serObj.timetableRepository.getSiteRepository().reindexAfterDeserialization();
-      serObj.timetableRepository.index();
+      // The street graph and the transit indexes do not depend on each other
+      var edgeLists = CompletableFuture.runAsync(serObj::reconstructEdgeLists);
+      try {
+        serObj.timetableRepository.getSiteRepository().reindexAfterDeserialization();
+        serObj.timetableRepository.index();
+      } finally {
+        // Do not leave the task running on the graph if the indexing fails
+        join(edgeLists);
+      }
       logSerializationCompleteStatus(serObj.graph, serObj.timetableRepository);
       return serObj;
     } catch (IOException e) {
@@ -214,6 +227,21 @@ public class SerializedGraphObject implements Serializable {
     }
   }
 
+  /**
+   * Wait for the task and rethrow the original exception, so it is handled like exceptions
+   * thrown while reading the graph.
+   */
+  private static void join(CompletableFuture<Void> task) {
+    try {
+      task.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
+    }
+  }
+
   @SuppressWarnings("Convert2MethodRef")
   private static OutputStream wrapOutputStreamWithProgressTracker(
     OutputStream outputStream,
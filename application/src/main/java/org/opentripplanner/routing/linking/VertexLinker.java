@@ -3,8 +3,10 @@ package org.opentripplanner.routing.linking;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import org.locationtech.jts.geom.Coordinate;
@@ -17,6 +19,7 @@ import org.locationtech.jts.linearref.LocationIndexedLine;
 import org.locationtech.jts.operation.distance.DistanceOp;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.EdgeSpatialIndex;
@@ -77,6 +80,12 @@ public class VertexLinker {
   // TODO Temporary code until we refactor WalkableAreaBuilder  (#3152)
   private boolean addExtraEdgesToAreas = true;
 
+  /** The closest edges found in advance for the vertices to link, see {@link #prepareLinking}. */
+  private final Map<Vertex, PreparedLink> preparedLinks = new ConcurrentHashMap<>();
+
+  /** The envelopes of the areas which got new edges since the links were prepared. */
+  private HashGridSpatialIndex<Envelope> changedAreas = new HashGridSpatialIndex<>();
+
   /**
    * Construct a new VertexLinker. NOTE: Only one VertexLinker should be active on a graph at any
    * given time.
@@ -101,6 +110,37 @@ public class VertexLinker {
     link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction);
   }
 
+  /**
+   * Find the closest edges of each of the given vertices in parallel, so the following
+   * {@link #linkVertexPermanently} calls only need to split the edges and create the links.
+   * Searching the spatial index and computing the distances to the candidate edges is the
+   * expensive part of linking, while the splitting must be done one vertex at a time.
+   * <p>
+   * When a vertex is linked, the prepared edges are used if they are still valid, otherwise the
+   * search is done again. They are not valid if one of the closest edges is split by a vertex
+   * linked before, or if edges are added to an area close to the vertex. A split edge is replaced
+   * by edges with the same geometry, which can not be closer to the vertex than the original.
+   * So, the result is the same as linking the vertices one at a time in the same order.
+   * <p>
+   * The graph must not be changed by other means than linking, until the prepared vertices are
+   * linked. Call {@link #clearPreparedLinks()} when done, so the links of the vertices which were
+   * prepared, but not linked, are released.
+   */
+  public void prepareLinking(Collection<? extends Vertex> vertices, TraverseModeSet traverseModes) {
+    clearPreparedLinks();
+    vertices
+      .parallelStream()
+      .forEach(v -> preparedLinks.put(v, prepareLink(v, traverseModes)));
+  }
+
+  /**
+   * Drop the links prepared by {@link #prepareLinking}, which are not used yet.
+   */
+  public void clearPreparedLinks() {
+    preparedLinks.clear();
+    changedAreas = new HashGridSpatialIndex<>();
+  }
+
   public DisposableEdgeCollection linkVertexForRealTime(
     Vertex vertex,
     TraverseModeSet traverseModes,
@@ -188,24 +228,32 @@ public class VertexLinker {
       : null;
 
     try {
-      Set<StreetVertex> streetVertices = linkToStreetEdges(
-        vertex,
-        traverseModes,
-        direction,
-        scope,
-        INITIAL_SEARCH_RADIUS_METERS,
-        tempEdges
-      );
-      if (streetVertices.isEmpty()) {
+      var prepared = scope == Scope.PERMANENT ? preparedLinks.remove(vertex) : null;
+      Set<StreetVertex> streetVertices;
+      if (prepared != null && isValid(prepared, vertex, traverseModes)) {
+        streetVertices =
+          linkToClosestEdges(vertex, prepared.closestEdges(), direction, scope, tempEdges);
+      } else {
         streetVertices =
           linkToStreetEdges(
             vertex,
             traverseModes,
             direction,
             scope,
-            MAX_SEARCH_RADIUS_METERS,
+            INITIAL_SEARCH_RADIUS_METERS,
             tempEdges
           );
+        if (streetVertices.isEmpty()) {
+          streetVertices =
+            linkToStreetEdges(
+              vertex,
+              traverseModes,
+              direction,
+              scope,
+              MAX_SEARCH_RADIUS_METERS,
+              tempEdges
+            );
+        }
       }
 
       for (StreetVertex streetVertex : streetVertices) {
@@ -234,22 +282,30 @@ public class VertexLinker {
     int radiusMeters,
     DisposableEdgeCollection tempEdges
   ) {
-    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
+    var closestEdges = findClosestEdges(vertex, traverseModes, scope, radiusMeters);
+    return linkToClosestEdges(vertex, closestEdges, direction, scope, tempEdges);
+  }
 
-    Envelope env = new Envelope(vertex.getCoordinate());
+  /**
+   * Find the closest edges within the given radius, without changing the graph.
+   */
+  private Set<DistanceTo<StreetEdge>> findClosestEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    Scope scope,
+    int radiusMeters
+  ) {
+    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
 
     // Perform a simple local equirectangular projection, so distances are expressed in degrees latitude.
-    final double xscale = Math.cos(vertex.getLat() * Math.PI / 180);
-
-    // Expand more in the longitude direction than the latitude direction to account for converging meridians.
-    env.expandBy(radiusDeg / xscale, radiusDeg);
+    final double xscale = xScale(vertex);
 
     // Perform several transformations at once on the edges returned by the index. Only consider
     // street edges traversable by at least one of the given modes and are still present in the
     // graph. Calculate a distance to each of those edges, and keep only the ones within the search
     // radius.
     List<DistanceTo<StreetEdge>> candidateEdges = edgeSpatialIndex
-      .query(env, scope)
+      .query(searchEnvelope(vertex, radiusMeters), scope)
       .filter(StreetEdge.class::isInstance)
       .map(StreetEdge.class::cast)
       .filter(e -> e.canTraverse(traverseModes) && e.isReachableFromGraph())
@@ -261,10 +317,17 @@ public class VertexLinker {
       return Set.of();
     }
 
-    Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
-      traverseModes,
-      candidateEdges
-    );
+    return getClosestEdgesPerMode(traverseModes, candidateEdges);
+  }
+
+  private Set<StreetVertex> linkToClosestEdges(
+    Vertex vertex,
+    Set<DistanceTo<StreetEdge>> closestEdges,
+    LinkingDirection direction,
+    Scope scope,
+    DisposableEdgeCollection tempEdges
+  ) {
+    final double xscale = xScale(vertex);
     Set<AreaEdgeList> linkedAreas = new HashSet<>();
     return closestEdges
       .stream()
@@ -273,6 +336,41 @@ public class VertexLinker {
       .collect(Collectors.toSet());
   }
 
+  private PreparedLink prepareLink(Vertex vertex, TraverseModeSet traverseModes) {
+    int radiusMeters = INITIAL_SEARCH_RADIUS_METERS;
+    var closestEdges = findClosestEdges(vertex, traverseModes, Scope.PERMANENT, radiusMeters);
+    if (closestEdges.isEmpty()) {
+      radiusMeters = MAX_SEARCH_RADIUS_METERS;
+      closestEdges = findClosestEdges(vertex, traverseModes, Scope.PERMANENT, radiusMeters);
+    }
+    return new PreparedLink(traverseModes, radiusMeters, closestEdges);
+  }
+
+  private boolean isValid(PreparedLink prepared, Vertex vertex, TraverseModeSet traverseModes) {
+    if (!prepared.traverseModes().equals(traverseModes)) {
+      return false;
+    }
+    for (var it : prepared.closestEdges()) {
+      if (!it.item.getToVertex().getIncoming().contains(it.item)) {
+        return false;
+      }
+    }
+    return changedAreas.query(searchEnvelope(vertex, prepared.radiusMeters())).isEmpty();
+  }
+
+  private static double xScale(Vertex vertex) {
+    return Math.cos(vertex.getLat() * Math.PI / 180);
+  }
+
+  private static Envelope searchEnvelope(Vertex vertex, int radiusMeters) {
+    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
+    Envelope env = new Envelope(vertex.getCoordinate());
+    // Expand more in the longitude direction than the latitude direction to account for
+    // converging meridians.
+    env.expandBy(radiusDeg / xScale(vertex), radiusDeg);
+    return env;
+  }
+
   /**
    * We need to get the closest edges per mode to be sure that we are linking to edges traversable
    * by all the specified modes. We use a set here to avoid duplicates in the case that edges are
@@ -489,6 +587,12 @@ public class VertexLinker {
     return v;
   }
 
+  private record PreparedLink(
+    TraverseModeSet traverseModes,
+    int radiusMeters,
+    Set<DistanceTo<StreetEdge>> closestEdges
+  ) {}
+
   private static class DistanceTo<T> {
 
     T item;
@@ -587,6 +691,10 @@ public class VertexLinker {
     }
     if (scope == Scope.PERMANENT) {
       edgeList.addVisibilityVertex(newVertex);
+      if (!preparedLinks.isEmpty()) {
+        var envelope = polygon.getEnvelopeInternal();
+        changedAreas.insert(envelope, envelope);
+      }
     }
   }
 
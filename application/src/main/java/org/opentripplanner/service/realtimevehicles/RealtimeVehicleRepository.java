@@ -1,6 +1,8 @@
 package org.opentripplanner.service.realtimevehicles;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
 import org.opentripplanner.transit.model.network.TripPattern;
 
@@ -22,6 +24,19 @@ public interface RealtimeVehicleRepository {
    * they have stopped their trip.
    */
   void clearRealtimeVehicles(TripPattern pattern);
+
+  /**
+   * Set the vehicles of all patterns in {@code updates} and remove the vehicles of all patterns
+   * in {@code cleared} in one operation. Readers will either see all or none of the changes.
+   * <p>
+   * Prefer this over calling {@link #setRealtimeVehicles(TripPattern, List)} and
+   * {@link #clearRealtimeVehicles(TripPattern)} for each pattern when applying a complete feed.
+   */
+  void updateRealtimeVehicles(
+    Map<TripPattern, List<RealtimeVehicle>> updates,
+    Collection<TripPattern> cleared
+  );
+
   /**
    * Get the vehicles for a certain trip.
    */
@@ -5,10 +5,12 @@ import static org.opentripplanner.transit.model.timetable.OccupancyStatus.NO_DAT
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleRepository;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
@@ -18,11 +20,18 @@ import org.opentripplanner.transit.model.timetable.OccupancyStatus;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.service.TransitService;
 
+/**
+ * The vehicles are kept in an immutable {@link RealtimeVehicleIndex}. Writers create a new version
+ * of the index and swap it in atomically, while readers just read the current version without
+ * any locking. A reader therefore never sees a half-applied update.
+ */
 @Singleton
 public class DefaultRealtimeVehicleService
   implements RealtimeVehicleService, RealtimeVehicleRepository {
 
-  private final Map<TripPattern, List<RealtimeVehicle>> vehicles = new ConcurrentHashMap<>();
+  private final AtomicReference<RealtimeVehicleIndex> index = new AtomicReference<>(
+    RealtimeVehicleIndex.EMPTY
+  );
 
   private final TransitService transitService;
 
@@ -38,15 +47,29 @@ public class DefaultRealtimeVehicleService
    */
   @Override
   public void setRealtimeVehicles(TripPattern pattern, List<RealtimeVehicle> updates) {
-    if (pattern.getOriginalTripPattern() != null) {
-      pattern = pattern.getOriginalTripPattern();
-    }
-    vehicles.put(pattern, List.copyOf(updates));
+    updateRealtimeVehicles(Map.of(pattern, updates), List.of());
   }
 
   @Override
   public void clearRealtimeVehicles(TripPattern pattern) {
-    vehicles.remove(pattern);
+    updateRealtimeVehicles(Map.of(), List.of(pattern));
+  }
+
+  /**
+   * Apply all changes as one new version of the index. Realtime-added patterns are mapped to the
+   * original pattern as in {@link #setRealtimeVehicles(TripPattern, List)}.
+   */
+  @Override
+  public void updateRealtimeVehicles(
+    Map<TripPattern, List<RealtimeVehicle>> updates,
+    Collection<TripPattern> cleared
+  ) {
+    var updated = new HashMap<TripPattern, List<RealtimeVehicle>>();
+    updates.forEach((pattern, vehicles) ->
+      updated.put(originalPattern(pattern), List.copyOf(vehicles))
+    );
+    var removed = cleared.stream().map(DefaultRealtimeVehicleService::originalPattern).toList();
+    index.updateAndGet(it -> it.withChanges(updated, removed));
   }
 
   /**
@@ -58,11 +81,8 @@ public class DefaultRealtimeVehicleService
    */
   @Override
   public List<RealtimeVehicle> getRealtimeVehicles(TripPattern pattern) {
-    if (pattern.getOriginalTripPattern() != null) {
-      pattern = pattern.getOriginalTripPattern();
-    }
     // the list is made immutable during insertion, so we can safely return them
-    return vehicles.getOrDefault(pattern, List.of());
+    return index.get().vehicles(originalPattern(pattern));
   }
 
   @Override
@@ -77,12 +97,17 @@ public class DefaultRealtimeVehicleService
    * provided to the service.
    */
   public OccupancyStatus getOccupancyStatus(FeedScopedId tripId, TripPattern pattern) {
-    return vehicles
-      .getOrDefault(pattern, List.of())
+    return index
+      .get()
+      .vehicles(pattern)
       .stream()
       .filter(vehicle -> tripId.equals(vehicle.trip().getId()))
       .max(Comparator.comparing(vehicle -> vehicle.time().orElse(Instant.MIN)))
       .flatMap(RealtimeVehicle::occupancyStatus)
       .orElse(NO_DATA_AVAILABLE);
   }
+
+  private static TripPattern originalPattern(TripPattern pattern) {
+    return pattern.getOriginalTripPattern() != null ? pattern.getOriginalTripPattern() : pattern;
+  }
 }
@@ -0,0 +1,67 @@
+package org.opentripplanner.service.realtimevehicles.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.utils.tostring.ToStringBuilder;
+
+/**
+ * An immutable index of realtime vehicles by trip pattern. A new index is created for each update
+ * by applying the changed patterns to a copy of the previous one. The vehicle lists are shared
+ * between the instances, so the cost of an update is proportional to the number of patterns with
+ * vehicles, not the number of vehicles.
+ * <p>
+ * Since an index is never modified after it is created, readers can use it without any locking
+ * and always see a consistent view of one update.
+ */
+final class RealtimeVehicleIndex {
+
+  static final RealtimeVehicleIndex EMPTY = new RealtimeVehicleIndex(Map.of());
+
+  private final Map<TripPattern, List<RealtimeVehicle>> vehiclesByPattern;
+
+  private RealtimeVehicleIndex(Map<TripPattern, List<RealtimeVehicle>> vehiclesByPattern) {
+    this.vehiclesByPattern = vehiclesByPattern;
+  }
+
+  List<RealtimeVehicle> vehicles(TripPattern pattern) {
+    return vehiclesByPattern.getOrDefault(pattern, List.of());
+  }
+
+  /**
+   * Create a new index where the vehicles of the given patterns are replaced and the vehicles of
+   * the removed patterns are cleared. The vehicle lists must be immutable. If nothing changes,
+   * this instance is returned.
+   */
+  RealtimeVehicleIndex withChanges(
+    Map<TripPattern, List<RealtimeVehicle>> updated,
+    Collection<TripPattern> removed
+  ) {
+    if (updated.isEmpty() && removed.stream().noneMatch(vehiclesByPattern::containsKey)) {
+      return this;
+    }
+    var copy = new HashMap<>(vehiclesByPattern);
+    removed.forEach(copy::remove);
+    updated.forEach((pattern, vehicles) -> {
+      if (vehicles.isEmpty()) {
+        copy.remove(pattern);
+      } else {
+        copy.put(pattern, vehicles);
+      }
+    });
+    // The copy is never modified after this, so it does not need to be copied again
+    return new RealtimeVehicleIndex(Collections.unmodifiableMap(copy));
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(RealtimeVehicleIndex.class)
+      .addNum("numberOfPatterns", vehiclesByPattern.size())
+      .toString();
+  }
+}
@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import java.util.List;
@@ -28,6 +29,7 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
   private final int transferCacheMaxSize;
+  private final int transitLayerPreloadDays;
   private final List<RouteRequest> transferCacheRequests;
   private final List<Duration> pagingSearchWindowAdjustments;
 
@@ -159,6 +161,23 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
         )
         .asInt(25);
 
+    this.transitLayerPreloadDays =
+      c
+        .of("transitLayerPreloadDays")
+        .since(V2_7)
+        .summary(
+          "The number of days, starting with today, to prepare the timetables for at startup."
+        )
+        .description(
+          """
+The timetables are prepared for routing one day at a time. By default, all service days are
+prepared at startup. Set this to 0 or more to only prepare the given number of days at startup,
+the other days are prepared the first time they are searched. This reduces the memory used and the
+startup time for feeds valid for a long period, while the first search on a new day is slower.
+"""
+        )
+        .asInt(-1);
+
     this.transferCacheRequests =
       c
         .of("transferCacheRequests")
@@ -169,6 +188,10 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
 If not set, the default behavior is to cache stop-to-stop transfers using the default route request
 (`routingDefaults`). Use this to change the default or specify more than one `RouteRequest`.
 
+The cache is filled in parallel for all requests before the server starts, so list the profiles
+used by your clients, like bike or wheelchair, to avoid a slow first request for each of them.
+The cache hits, misses and load times are reported in the `raptorTransfersCache` metrics.
+
 **Example**
 
 ```JSON
@@ -273,6 +296,11 @@ for more info."
     return transferCacheRequests;
   }
 
+  @Override
+  public int transitLayerPreloadDays() {
+    return transitLayerPreloadDays;
+  }
+
   @Override
   public Duration maxSearchWindow() {
     return maxSearchWindow;
@@ -242,12 +242,16 @@ public class ConstructApplication {
 
       LOG.info(progress.startMessage());
 
-      transferCacheRequests.forEach(request -> {
-        timetableRepository.getTransitLayer().initTransferCacheForRequest(request);
-
-        //noinspection Convert2MethodRef
-        progress.step(s -> LOG.info(s));
-      });
+      // The requests are independent, so the transfers for each of them are created in parallel.
+      // This is done before the server is started, so the first requests do not have to wait.
+      transferCacheRequests
+        .parallelStream()
+        .forEach(request -> {
+          timetableRepository.getTransitLayer().initTransferCacheForRequest(request);
+
+          //noinspection Convert2MethodRef
+          progress.step(s -> LOG.info(s));
+        });
 
       LOG.info(progress.completeMessage());
     }
@@ -365,4 +365,11 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
   public void flushBuffer() {
     snapshotManager.purgeAndCommit();
   }
+
+  /**
+   * Run the given callback when the changes applied so far are visible to routing.
+   */
+  public void runAfterCommit(Runnable callback) {
+    snapshotManager.runAfterCommit(callback);
+  }
 }
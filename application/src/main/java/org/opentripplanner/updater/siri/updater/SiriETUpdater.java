@@ -1,5 +1,6 @@
 package org.opentripplanner.updater.siri.updater;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.function.Consumer;
 import org.opentripplanner.updater.siri.SiriTimetableSnapshotSource;
@@ -31,6 +32,8 @@ public class SiriETUpdater extends PollingGraphUpdater {
    */
   private final String feedId;
 
+  private final SiriTimetableSnapshotSource timetableSnapshotSource;
+
   private final EstimatedTimetableHandler estimatedTimetableHandler;
 
   private final Consumer<UpdateResult> metricsConsumer;
@@ -50,6 +53,7 @@ public class SiriETUpdater extends PollingGraphUpdater {
 
     LOG.info("Creating SIRI-ET updater running every {}: {}", pollingPeriod(), updateSource);
 
+    this.timetableSnapshotSource = timetableSnapshotSource;
     estimatedTimetableHandler =
       new EstimatedTimetableHandler(timetableSnapshotSource, config.fuzzyTripMatching(), feedId);
 
@@ -64,7 +68,8 @@ public class SiriETUpdater extends PollingGraphUpdater {
   public void runPolling() {
     boolean moreData = false;
     do {
-      var updates = updateSource.getUpdates();
+      // The SIRI XML is unmarshalled while it is read, so this includes the parsing
+      var updates = metrics.fetch(updateSource::getUpdates);
       if (updates.isPresent()) {
         var incrementality = updateSource.incrementalityOfLastUpdates();
         ServiceDelivery serviceDelivery = updates.get().getServiceDelivery();
@@ -72,12 +77,18 @@ public class SiriETUpdater extends PollingGraphUpdater {
         // Mark this updater as primed after last page of updates. Copy moreData into a final
         // primitive, because the object moreData persists across iterations.
         final boolean markPrimed = !moreData;
+        Instant responseTimestamp = serviceDelivery.getResponseTimestamp() == null
+          ? null
+          : serviceDelivery.getResponseTimestamp().toInstant();
         List<EstimatedTimetableDeliveryStructure> etds = serviceDelivery.getEstimatedTimetableDeliveries();
         if (etds != null) {
           saveResultOnGraph.execute(context -> {
-            var result = estimatedTimetableHandler.applyUpdate(etds, incrementality, context);
-            ResultLogger.logUpdateResult(feedId, "siri-et", result);
-            metricsConsumer.accept(result);
+            metrics.apply(() -> {
+              var result = estimatedTimetableHandler.applyUpdate(etds, incrementality, context);
+              ResultLogger.logUpdateResult(feedId, "siri-et", result);
+              metricsConsumer.accept(result);
+            });
+            timetableSnapshotSource.runAfterCommit(() -> metrics.recordLatency(responseTimestamp));
             if (markPrimed) {
               primed = true;
             }
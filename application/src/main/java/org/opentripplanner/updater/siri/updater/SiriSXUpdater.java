@@ -1,6 +1,7 @@
 package org.opentripplanner.updater.siri.updater;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -103,9 +104,12 @@ public class SiriSXUpdater extends PollingGraphUpdater implements TransitAlertPr
   private void updateSiri() {
     boolean moreData = false;
     do {
-      var updates = getUpdates();
+      // The SIRI XML is unmarshalled while it is read, so this includes the parsing
+      var updates = metrics.fetch(this::getUpdates);
       if (updates.isPresent()) {
         ServiceDelivery serviceDelivery = updates.get().getServiceDelivery();
+        // getUpdates() only returns deliveries with a response timestamp
+        Instant responseTimestamp = serviceDelivery.getResponseTimestamp().toInstant();
         moreData = Boolean.TRUE.equals(serviceDelivery.isMoreData());
         // Mark this updater as primed after last page of updates. Copy moreData into a final
         // primitive, because the object moreData persists across iterations.
@@ -142,7 +146,9 @@ public class SiriSXUpdater extends PollingGraphUpdater implements TransitAlertPr
           // that would be most tolerant of non-versioned application-wide storage since they don't
           // participate in routing and are tacked on to already-completed routing responses.
           saveResultOnGraph.execute(context -> {
-            updateHandler.update(serviceDelivery, context);
+            metrics.apply(() -> updateHandler.update(serviceDelivery, context));
+            // The alerts are not part of the timetable snapshot, they are visible at once
+            metrics.recordLatency(responseTimestamp);
             if (markPrimed) {
               primed = true;
             }
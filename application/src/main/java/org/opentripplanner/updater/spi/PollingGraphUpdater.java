@@ -42,10 +42,16 @@ public abstract class PollingGraphUpdater implements GraphUpdater {
    */
   protected WriteToGraphCallback saveResultOnGraph;
 
+  /**
+   * Timers for the different phases of this updater, tagged with the config ref.
+   */
+  protected final UpdaterMetrics metrics;
+
   /** Shared configuration code for all polling graph updaters. */
   protected PollingGraphUpdater(PollingGraphUpdaterParameters config) {
     this.pollingPeriod = config.frequency();
     this.configRef = config.configRef();
+    this.metrics = UpdaterMetrics.of(configRef);
   }
 
   public Duration pollingPeriod() {
@@ -54,6 +60,7 @@ public abstract class PollingGraphUpdater implements GraphUpdater {
 
   @Override
   public final void run() {
+    long startTime = System.nanoTime();
     try {
       // Run concrete polling graph updater's implementation method.
       runPolling();
@@ -75,6 +82,7 @@ public abstract class PollingGraphUpdater implements GraphUpdater {
       LOG.error("Error while running polling updater {}", this, e);
       // TODO Should we cancel the task? Or after n consecutive failures? cancel();
     } finally {
+      metrics.recordPoll(Duration.ofNanos(System.nanoTime() - startTime));
       primed = true;
     }
   }
@@ -0,0 +1,156 @@
+package org.opentripplanner.updater.spi;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+
+/**
+ * Records micrometer timers for the different phases of a single updater, tagged with the
+ * {@code configRef} of the updater. The timers are exported through the Actuator API together
+ * with the rest of the OTP metrics.
+ * <p>
+ * The phases are:
+ * <ul>
+ *   <li>{@code fetch} - downloading the raw payload from the source</li>
+ *   <li>{@code parse} - decoding the payload into the updater's domain objects</li>
+ *   <li>{@code apply} - applying the decoded update to the graph/snapshot buffer on the graph
+ *   writer thread</li>
+ *   <li>{@code poll} - the full polling cycle of a {@link PollingGraphUpdater}</li>
+ *   <li>{@code latency} - the time from the feed timestamp until the update is visible to
+ *   routing</li>
+ * </ul>
+ * If the Actuator API is turned off, {@link #NOOP} is used and the timers are not registered, but
+ * the timed code is still executed.
+ */
+public class UpdaterMetrics {
+
+  private static final String METRICS_PREFIX = "updater";
+
+  /**
+   * A composite registry without any child registries returns no-op meters.
+   */
+  private static final MeterRegistry NOOP_REGISTRY = new CompositeMeterRegistry();
+
+  public static final UpdaterMetrics NOOP = new UpdaterMetrics(NOOP_REGISTRY, "");
+
+  private final MeterRegistry registry;
+  private final List<Tag> tags;
+  private final Timer fetchTimer;
+  private final Timer parseTimer;
+  private final Timer applyTimer;
+  private final Timer pollTimer;
+  private final Timer latencyTimer;
+
+  UpdaterMetrics(MeterRegistry registry, String configRef) {
+    var tags = List.of(Tag.of("configRef", configRef));
+    this.registry = registry;
+    this.tags = tags;
+    this.fetchTimer = timer(registry, "fetch", "Time spent fetching the updater payload", tags);
+    this.parseTimer = timer(registry, "parse", "Time spent parsing the updater payload", tags);
+    this.applyTimer =
+      timer(registry, "apply", "Time spent applying an update on the graph writer thread", tags);
+    this.pollTimer =
+      timer(registry, "poll", "Time spent in one polling cycle of the updater", tags);
+    this.latencyTimer =
+      timer(
+        registry,
+        "latency",
+        "Time from the feed timestamp until the update is visible to routing",
+        tags
+      );
+  }
+
+  public static UpdaterMetrics of(@Nullable String configRef) {
+    if (OTPFeature.ActuatorAPI.isOn() && configRef != null) {
+      return new UpdaterMetrics(Metrics.globalRegistry, configRef);
+    }
+    return NOOP;
+  }
+
+  /**
+   * Create a timer for work shared by all updaters, like committing the timetable snapshot. The
+   * timer is not tagged with a {@code configRef}. Like the updater timers, it is only registered
+   * if the Actuator API is on, otherwise a no-op timer is returned.
+   */
+  public static Timer sharedTimer(String name, String description) {
+    var registry = OTPFeature.ActuatorAPI.isOn() ? Metrics.globalRegistry : NOOP_REGISTRY;
+    return timer(registry, name, description, List.of());
+  }
+
+  public <T, E extends Exception> T fetch(ThrowingSupplier<T, E> body) throws E {
+    return record(fetchTimer, body);
+  }
+
+  public <T, E extends Exception> T parse(ThrowingSupplier<T, E> body) throws E {
+    return record(parseTimer, body);
+  }
+
+  public void apply(Runnable body) {
+    applyTimer.record(body);
+  }
+
+  public void recordPoll(Duration duration) {
+    pollTimer.record(duration);
+  }
+
+  /**
+   * Record the time from the given feed timestamp until now. Call this when the data produced
+   * at the given time is visible to routing. Missing timestamps and timestamps in the future
+   * (clock skew between the producer and OTP) are ignored.
+   */
+  public void recordLatency(@Nullable Instant feedTimestamp) {
+    if (feedTimestamp == null) {
+      return;
+    }
+    var latency = Duration.between(feedTimestamp, Instant.now());
+    if (!latency.isNegative()) {
+      latencyTimer.record(latency);
+    }
+  }
+
+  /**
+   * Create a timer for an updater specific phase, not covered by the common phases above. The
+   * timer is tagged with the config ref of the updater like the others.
+   */
+  public Timer timer(String name, String description) {
+    return timer(registry, name, description, tags);
+  }
+
+  private <T, E extends Exception> T record(Timer timer, ThrowingSupplier<T, E> body) throws E {
+    var sample = Timer.start(registry);
+    try {
+      return body.get();
+    } finally {
+      sample.stop(timer);
+    }
+  }
+
+  private static Timer timer(
+    MeterRegistry registry,
+    String name,
+    String description,
+    List<Tag> tags
+  ) {
+    return Timer
+      .builder(METRICS_PREFIX + "." + name)
+      .description(description)
+      .tags(tags)
+      .register(registry);
+  }
+
+  /**
+   * Like a {@link java.util.function.Supplier}, but the timed code may throw the checked exception
+   * of the source it reads from. The exception is passed on to the caller unchanged.
+   */
+  @FunctionalInterface
+  public interface ThrowingSupplier<T, E extends Exception> {
+    T get() throws E;
+  }
+}
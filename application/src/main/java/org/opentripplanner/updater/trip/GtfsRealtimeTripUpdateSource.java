@@ -10,12 +10,17 @@ import com.google.transit.realtime.GtfsRealtime.FeedMessage;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import com.google.transit.realtime.GtfsRealtimeOVapi;
 import de.mfdz.MfdzRealtimeExtensions;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.io.HttpCacheValidators;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
 import org.opentripplanner.updater.spi.HttpHeaders;
+import org.opentripplanner.updater.spi.UpdaterMetrics;
 import org.opentripplanner.utils.tostring.ToStringBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,11 +35,22 @@ public class GtfsRealtimeTripUpdateSource {
   private final String url;
   private final HttpHeaders headers;
   private UpdateIncrementality updateIncrementality = FULL_DATASET;
+  private Instant feedTimestamp = null;
   private final ExtensionRegistry registry = ExtensionRegistry.newInstance();
   private final OtpHttpClient otpHttpClient;
+  private final HttpCacheValidators cacheValidators = new HttpCacheValidators();
+  private final UpdaterMetrics metrics;
 
   public GtfsRealtimeTripUpdateSource(PollingTripUpdaterParameters config) {
+    this(config, UpdaterMetrics.NOOP);
+  }
+
+  public GtfsRealtimeTripUpdateSource(
+    PollingTripUpdaterParameters config,
+    UpdaterMetrics metrics
+  ) {
     this.feedId = config.feedId();
+    this.metrics = metrics;
     this.url = config.url();
     this.headers = HttpHeaders.of().acceptProtobuf().add(config.headers()).build();
     MfdzRealtimeExtensions.registerAllExtensions(registry);
@@ -42,19 +58,31 @@ public class GtfsRealtimeTripUpdateSource {
     GtfsRealtimeOVapi.registerAllExtensions(registry);
   }
 
+  /**
+   * Fetch and parse the feed. Returns null if the feed could not be read, or if it has not been
+   * modified since the last successful fetch, in both cases there is nothing new to apply.
+   */
   public List<TripUpdate> getUpdates() {
     FeedMessage feedMessage;
     List<FeedEntity> feedEntityList;
     List<TripUpdate> updates = null;
     updateIncrementality = FULL_DATASET;
+    feedTimestamp = null;
     try {
-      // Decode message
-      feedMessage =
-        otpHttpClient.getAndMap(
+      // Download and decode message, the two steps are done separately to be able to time them
+      var payload = metrics.fetch(() ->
+        otpHttpClient.getAndMapIfModified(
           URI.create(url),
           this.headers.asMap(),
-          is -> FeedMessage.parseFrom(is, registry)
-        );
+          cacheValidators,
+          InputStream::readAllBytes
+        )
+      );
+      if (payload.isEmpty()) {
+        LOG.debug("GTFS-RT TripUpdates feed from {} is not modified", url);
+        return null;
+      }
+      feedMessage = metrics.parse(() -> FeedMessage.parseFrom(payload.get(), registry));
       feedEntityList = feedMessage.getEntityList();
 
       // Change fullDataset value if this is an incremental update
@@ -68,6 +96,9 @@ public class GtfsRealtimeTripUpdateSource {
       ) {
         updateIncrementality = DIFFERENTIAL;
       }
+      if (feedMessage.hasHeader() && feedMessage.getHeader().hasTimestamp()) {
+        feedTimestamp = Instant.ofEpochSecond(feedMessage.getHeader().getTimestamp());
+      }
 
       // Create List of TripUpdates
       updates = new ArrayList<>(feedEntityList.size());
@@ -96,4 +127,12 @@ public class GtfsRealtimeTripUpdateSource {
   public UpdateIncrementality incrementalityOfLastUpdates() {
     return updateIncrementality;
   }
+
+  /**
+   * @return the timestamp in the header of the last feed message, or null if it is missing
+   */
+  @Nullable
+  public Instant feedTimestampOfLastUpdates() {
+    return feedTimestamp;
+  }
 }
@@ -6,6 +6,7 @@ import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.transit.realtime.GtfsRealtime;
 import java.net.URI;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -18,6 +19,7 @@ import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 import org.opentripplanner.updater.spi.GraphUpdater;
 import org.opentripplanner.updater.spi.UpdateResult;
+import org.opentripplanner.updater.spi.UpdaterMetrics;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
 import org.opentripplanner.utils.tostring.ToStringBuilder;
@@ -55,6 +57,7 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
   private final MemoryPersistence persistence = new MemoryPersistence();
   private final TimetableSnapshotSource snapshotSource;
   private final Consumer<UpdateResult> recordMetrics;
+  private final UpdaterMetrics metrics;
   private WriteToGraphCallback saveResultOnGraph;
 
   private final boolean fuzzyTripMatching;
@@ -75,6 +78,7 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     // Set properties of realtime data snapshot source
     this.fuzzyTripMatching = parameters.getFuzzyTripMatching();
     this.recordMetrics = TripUpdateMetrics.streaming(parameters);
+    this.metrics = UpdaterMetrics.of(configRef);
     LOG.info("Creating streaming GTFS-RT TripUpdate updater subscribing to MQTT broker at {}", url);
   }
 
@@ -136,10 +140,11 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     public void messageArrived(String topic, MqttMessage message) {
       List<GtfsRealtime.TripUpdate> updates = null;
       UpdateIncrementality updateIncrementality = FULL_DATASET;
+      Instant feedTimestamp = null;
       try {
         // Decode message
-        GtfsRealtime.FeedMessage feedMessage = GtfsRealtime.FeedMessage.parseFrom(
-          message.getPayload()
+        GtfsRealtime.FeedMessage feedMessage = metrics.parse(() ->
+          GtfsRealtime.FeedMessage.parseFrom(message.getPayload())
         );
         List<GtfsRealtime.FeedEntity> feedEntityList = feedMessage.getEntityList();
 
@@ -154,6 +159,9 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
         ) {
           updateIncrementality = DIFFERENTIAL;
         }
+        if (feedMessage.hasHeader() && feedMessage.getHeader().hasTimestamp()) {
+          feedTimestamp = Instant.ofEpochSecond(feedMessage.getHeader().getTimestamp());
+        }
 
         // Create List of TripUpdates
         updates = new ArrayList<>(feedEntityList.size());
@@ -176,7 +184,9 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
             updateIncrementality,
             updates,
             feedId,
-            recordMetrics
+            recordMetrics,
+            metrics,
+            feedTimestamp
           )
         );
       }
@@ -45,7 +45,7 @@ public class PollingTripUpdater extends PollingGraphUpdater {
     super(parameters);
     // Create update streamer from preferences
     this.feedId = parameters.feedId();
-    this.updateSource = new GtfsRealtimeTripUpdateSource(parameters);
+    this.updateSource = new GtfsRealtimeTripUpdateSource(parameters, metrics);
     this.backwardsDelayPropagationType = parameters.backwardsDelayPropagationType();
     this.snapshotSource = snapshotSource;
     this.fuzzyTripMatching = parameters.fuzzyTripMatching();
@@ -78,7 +78,9 @@ public class PollingTripUpdater extends PollingGraphUpdater {
         incrementality,
         updates,
         feedId,
-        recordMetrics
+        recordMetrics,
+        metrics,
+        updateSource.feedTimestampOfLastUpdates()
       );
       updateGraph(runnable);
     }
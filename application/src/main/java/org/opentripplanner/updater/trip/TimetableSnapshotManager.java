@@ -1,6 +1,9 @@
 package org.opentripplanner.updater.trip;
 
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
@@ -15,6 +18,7 @@ import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.updater.TimetableSnapshotSourceParameters;
 import org.opentripplanner.updater.spi.UpdateError;
 import org.opentripplanner.updater.spi.UpdateSuccess;
+import org.opentripplanner.updater.spi.UpdaterMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +59,17 @@ public final class TimetableSnapshotManager {
 
   private LocalDate lastPurgeDate = null;
 
+  private final Timer commitTimer = UpdaterMetrics.sharedTimer(
+    "snapshot_commit",
+    "Time spent committing the timetable snapshot, including the transit layer update"
+  );
+
+  /**
+   * Callbacks to run when the changes currently in the buffer are published. Only accessed from
+   * the graph writer thread.
+   */
+  private final List<Runnable> commitCallbacks = new ArrayList<>();
+
   /**
    *
    * @param localDateNow This supplier allows you to inject a custom lambda to override what is
@@ -103,12 +118,27 @@ public final class TimetableSnapshotManager {
   void commitTimetableSnapshot(final boolean force) {
     if (force || buffer.isDirty()) {
       LOG.debug("Committing {}", buffer);
-      snapshot.publish(buffer.commit(transitLayerUpdater, force));
+      commitTimer.record(() -> snapshot.publish(buffer.commit(transitLayerUpdater, force)));
+      commitCallbacks.forEach(Runnable::run);
+      commitCallbacks.clear();
     } else {
       LOG.debug("Buffer was unchanged, keeping old snapshot.");
     }
   }
 
+  /**
+   * Run the given callback when the changes currently in the buffer are visible to routing, that
+   * is after the next commit. If the buffer has no pending changes, the callback is run
+   * immediately.
+   */
+  public void runAfterCommit(Runnable callback) {
+    if (buffer.isDirty()) {
+      commitCallbacks.add(callback);
+    } else {
+      callback.run();
+    }
+  }
+
   /**
    * Get the current trip pattern given a trip id and a service date, if it has been changed from
    * the scheduled pattern with an update, for which the stopPattern is different.
@@ -1425,4 +1425,11 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
   public void flushBuffer() {
     snapshotManager.purgeAndCommit();
   }
+
+  /**
+   * Run the given callback when the changes applied so far are visible to routing.
+   */
+  public void runAfterCommit(Runnable callback) {
+    snapshotManager.runAfterCommit(callback);
+  }
 }
@@ -1,12 +1,15 @@
 package org.opentripplanner.updater.trip;
 
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.UpdateResult;
+import org.opentripplanner.updater.spi.UpdaterMetrics;
 
 class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
 
@@ -24,6 +27,14 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
   private final String feedId;
   private final Consumer<UpdateResult> sendMetrics;
   private final TimetableSnapshotSource snapshotSource;
+  private final UpdaterMetrics metrics;
+
+  /**
+   * The timestamp of the feed message the updates were read from, used to measure the latency
+   * until the updates are visible to routing.
+   */
+  @Nullable
+  private final Instant feedTimestamp;
 
   TripUpdateGraphWriterRunnable(
     TimetableSnapshotSource snapshotSource,
@@ -32,7 +43,9 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
     UpdateIncrementality updateIncrementality,
     List<TripUpdate> updates,
     String feedId,
-    Consumer<UpdateResult> sendMetrics
+    Consumer<UpdateResult> sendMetrics,
+    UpdaterMetrics metrics,
+    @Nullable Instant feedTimestamp
   ) {
     this.snapshotSource = snapshotSource;
     this.fuzzyTripMatching = fuzzyTripMatching;
@@ -41,17 +54,22 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
     this.updates = Objects.requireNonNull(updates);
     this.feedId = Objects.requireNonNull(feedId);
     this.sendMetrics = sendMetrics;
+    this.metrics = Objects.requireNonNull(metrics);
+    this.feedTimestamp = feedTimestamp;
   }
 
   @Override
   public void run(RealTimeUpdateContext context) {
-    var result = snapshotSource.applyTripUpdates(
-      fuzzyTripMatching ? context.gtfsRealtimeFuzzyTripMatcher() : null,
-      backwardsDelayPropagationType,
-      updateIncrementality,
-      updates,
-      feedId
-    );
-    sendMetrics.accept(result);
+    metrics.apply(() -> {
+      var result = snapshotSource.applyTripUpdates(
+        fuzzyTripMatching ? context.gtfsRealtimeFuzzyTripMatcher() : null,
+        backwardsDelayPropagationType,
+        updateIncrementality,
+        updates,
+        feedId
+      );
+      sendMetrics.accept(result);
+    });
+    snapshotSource.runAfterCommit(() -> metrics.recordLatency(feedTimestamp));
   }
 }
@@ -5,8 +5,11 @@ import com.google.transit.realtime.GtfsRealtime.VehiclePosition;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.io.HttpCacheValidators;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientException;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
@@ -30,6 +33,8 @@ public class GtfsRealtimeHttpVehiclePositionSource {
   private final URI url;
   private final HttpHeaders headers;
   private final OtpHttpClient otpHttpClient;
+  private final HttpCacheValidators cacheValidators = new HttpCacheValidators();
+  private Instant feedTimestamp = null;
 
   public GtfsRealtimeHttpVehiclePositionSource(URI url, HttpHeaders headers) {
     this.url = url;
@@ -38,17 +43,32 @@ public class GtfsRealtimeHttpVehiclePositionSource {
   }
 
   /**
-   * Parses raw GTFS-RT data into vehicle positions
+   * Parses raw GTFS-RT data into vehicle positions. Returns null if the feed has not been modified
+   * since the last successful fetch.
    */
   public List<VehiclePosition> getPositions() {
+    feedTimestamp = null;
     try {
-      return otpHttpClient.getAndMap(url, headers.asMap(), this::getPositions);
+      return otpHttpClient
+        .getAndMapIfModified(url, headers.asMap(), cacheValidators, this::getPositions)
+        .orElseGet(() -> {
+          LOG.debug("Vehicle positions feed from {} is not modified", url);
+          return null;
+        });
     } catch (OtpHttpClientException e) {
       LOG.warn("Error reading vehicle positions from {}", url, e);
     }
     return List.of();
   }
 
+  /**
+   * @return the timestamp in the header of the last feed message, or null if it is missing
+   */
+  @Nullable
+  public Instant feedTimestampOfLastPositions() {
+    return feedTimestamp;
+  }
+
   @Override
   public String toString() {
     return ToStringBuilder
@@ -66,6 +86,9 @@ public class GtfsRealtimeHttpVehiclePositionSource {
       // Decode message
       feedMessage = GtfsRealtime.FeedMessage.parseFrom(is);
       feedEntityList = feedMessage.getEntityList();
+      if (feedMessage.hasHeader() && feedMessage.getHeader().hasTimestamp()) {
+        feedTimestamp = Instant.ofEpochSecond(feedMessage.getHeader().getTimestamp());
+      }
 
       // Create List of TripUpdates
       positions = new ArrayList<>(feedEntityList.size());
@@ -1,12 +1,14 @@
 package org.opentripplanner.updater.vehicle_position;
 
 import com.google.transit.realtime.GtfsRealtime.VehiclePosition;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleRepository;
 import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
 import org.opentripplanner.standalone.config.routerconfig.updaters.VehiclePositionsUpdaterConfig;
+import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.utils.tostring.ToStringBuilder;
 import org.slf4j.Logger;
@@ -31,6 +33,12 @@ public class PollingVehiclePositionUpdater extends PollingGraphUpdater {
   private final RealtimeVehicleRepository realtimeVehicleRepository;
   private final boolean fuzzyTripMatching;
 
+  /**
+   * The patterns which had vehicles in the previous update of this feed. Only accessed by the
+   * graph writer thread.
+   */
+  private final Set<TripPattern> patternsInPreviousUpdate = new HashSet<>();
+
   public PollingVehiclePositionUpdater(
     VehiclePositionsUpdaterParameters params,
     RealtimeVehicleRepository realtimeVehicleRepository
@@ -57,18 +65,25 @@ public class PollingVehiclePositionUpdater extends PollingGraphUpdater {
   @Override
   public void runPolling() throws InterruptedException, ExecutionException {
     // Get update lists from update source
-    List<VehiclePosition> updates = vehiclePositionSource.getPositions();
+    // The feed is decoded while it is read, so this includes the parsing
+    List<VehiclePosition> updates = metrics.fetch(vehiclePositionSource::getPositions);
 
     if (updates != null) {
+      var feedTimestamp = vehiclePositionSource.feedTimestampOfLastPositions();
       // Handle updating trip positions via graph writer runnable
       var runnable = new VehiclePositionUpdaterRunnable(
         realtimeVehicleRepository,
         vehiclePositionFeatures,
         feedId,
         fuzzyTripMatching,
+        patternsInPreviousUpdate,
         updates
       );
-      updateGraph(runnable);
+      updateGraph(context -> {
+        metrics.apply(() -> runnable.run(context));
+        // The vehicles are visible to routing as soon as they are applied
+        metrics.recordLatency(feedTimestamp);
+      });
     }
   }
 
@@ -9,7 +9,6 @@ import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.TRIP_N
 import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.TRIP_NOT_FOUND_IN_PATTERN;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.Sets;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.util.JsonFormat;
 import com.google.transit.realtime.GtfsRealtime.VehiclePosition;
@@ -20,6 +19,7 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -69,7 +69,7 @@ public class RealtimeVehiclePatternMatcher {
   private final GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher;
   private final Set<VehiclePositionsUpdaterConfig.VehiclePositionFeature> vehiclePositionFeatures;
 
-  private Set<TripPattern> patternsInPreviousUpdate = Set.of();
+  private final Set<TripPattern> patternsInPreviousUpdate;
 
   public RealtimeVehiclePatternMatcher(
     String feedId,
@@ -80,6 +80,37 @@ public class RealtimeVehiclePatternMatcher {
     ZoneId timeZoneId,
     GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
     Set<VehiclePositionsUpdaterConfig.VehiclePositionFeature> vehiclePositionFeatures
+  ) {
+    this(
+      feedId,
+      getTripForId,
+      getStaticPattern,
+      getRealtimePattern,
+      repository,
+      timeZoneId,
+      fuzzyTripMatcher,
+      vehiclePositionFeatures,
+      new HashSet<>()
+    );
+  }
+
+  /**
+   * @param patternsInPreviousUpdate The patterns which had vehicles in the previous update. The
+   *                                 set is updated by each call to
+   *                                 {@link #applyRealtimeVehicleUpdates(List)}, pass in the same
+   *                                 set for each update of a feed to clear the vehicles of
+   *                                 patterns which are no longer in the feed.
+   */
+  public RealtimeVehiclePatternMatcher(
+    String feedId,
+    Function<FeedScopedId, Trip> getTripForId,
+    Function<Trip, TripPattern> getStaticPattern,
+    BiFunction<Trip, LocalDate, TripPattern> getRealtimePattern,
+    RealtimeVehicleRepository repository,
+    ZoneId timeZoneId,
+    GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
+    Set<VehiclePositionsUpdaterConfig.VehiclePositionFeature> vehiclePositionFeatures,
+    Set<TripPattern> patternsInPreviousUpdate
   ) {
     this.feedId = feedId;
     this.getTripForId = getTripForId;
@@ -89,6 +120,7 @@ public class RealtimeVehiclePatternMatcher {
     this.timeZoneId = timeZoneId;
     this.fuzzyTripMatcher = fuzzyTripMatcher;
     this.vehiclePositionFeatures = vehiclePositionFeatures;
+    this.patternsInPreviousUpdate = patternsInPreviousUpdate;
   }
 
   /**
@@ -125,14 +157,17 @@ public class RealtimeVehiclePatternMatcher {
         )
       );
 
-    vehicles.forEach(repository::setRealtimeVehicles);
     Set<TripPattern> patternsInCurrentUpdate = vehicles.keySet();
 
     // if there was a vehicle in the previous update but not in the current one, we assume
     // that the pattern has no more vehicles.
-    var toDelete = Sets.difference(patternsInPreviousUpdate, patternsInCurrentUpdate);
-    toDelete.forEach(repository::clearRealtimeVehicles);
-    patternsInPreviousUpdate = patternsInCurrentUpdate;
+    var toDelete = patternsInPreviousUpdate
+      .stream()
+      .filter(pattern -> !patternsInCurrentUpdate.contains(pattern))
+      .toList();
+    repository.updateRealtimeVehicles(vehicles, toDelete);
+    patternsInPreviousUpdate.clear();
+    patternsInPreviousUpdate.addAll(patternsInCurrentUpdate);
 
     if (!vehiclePositions.isEmpty() && patternsInCurrentUpdate.isEmpty()) {
       LOG.error(
@@ -6,6 +6,7 @@ import java.util.Objects;
 import java.util.Set;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleRepository;
 import org.opentripplanner.standalone.config.routerconfig.updaters.VehiclePositionsUpdaterConfig;
+import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 
@@ -16,12 +17,14 @@ public class VehiclePositionUpdaterRunnable implements GraphWriterRunnable {
   private final String feedId;
   private final boolean fuzzyTripMatching;
   private final Set<VehiclePositionsUpdaterConfig.VehiclePositionFeature> vehiclePositionFeatures;
+  private final Set<TripPattern> patternsInPreviousUpdate;
 
   public VehiclePositionUpdaterRunnable(
     RealtimeVehicleRepository realtimeVehicleRepository,
     Set<VehiclePositionsUpdaterConfig.VehiclePositionFeature> vehiclePositionFeatures,
     String feedId,
     boolean fuzzyTripMatching,
+    Set<TripPattern> patternsInPreviousUpdate,
     List<VehiclePosition> updates
   ) {
     this.updates = Objects.requireNonNull(updates);
@@ -29,6 +32,7 @@ public class VehiclePositionUpdaterRunnable implements GraphWriterRunnable {
     this.realtimeVehicleRepository = realtimeVehicleRepository;
     this.fuzzyTripMatching = fuzzyTripMatching;
     this.vehiclePositionFeatures = vehiclePositionFeatures;
+    this.patternsInPreviousUpdate = patternsInPreviousUpdate;
   }
 
   @Override
@@ -41,7 +45,8 @@ public class VehiclePositionUpdaterRunnable implements GraphWriterRunnable {
       realtimeVehicleRepository,
       context.transitService().getTimeZone(),
       fuzzyTripMatching ? context.gtfsRealtimeFuzzyTripMatcher() : null,
-      vehiclePositionFeatures
+      vehiclePositionFeatures,
+      patternsInPreviousUpdate
     );
     // Apply new vehicle positions
     matcher.applyRealtimeVehicleUpdates(updates);
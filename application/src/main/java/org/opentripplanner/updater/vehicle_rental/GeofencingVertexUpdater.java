@@ -11,6 +11,7 @@ import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.service.vehiclerental.model.GeofencingZone;
 import org.opentripplanner.service.vehiclerental.street.BusinessAreaBorder;
@@ -34,6 +35,15 @@ class GeofencingVertexUpdater {
 
   private final Function<Envelope, Collection<Edge>> getEdgesForEnvelope;
 
+  /**
+   * The extensions added for each restricted zone, so that a zone can be removed without touching
+   * the edges of the other zones.
+   */
+  private final Map<GeofencingZone, Map<StreetEdge, RentalRestrictionExtension>> appliedZones = new HashMap<>();
+
+  private Set<GeofencingZone> appliedBusinessAreas = Set.of();
+  private Map<StreetEdge, RentalRestrictionExtension> appliedBusinessAreaBorder = Map.of();
+
   public GeofencingVertexUpdater(Function<Envelope, Collection<Edge>> getEdgesForEnvelope) {
     this.getEdgesForEnvelope = getEdgesForEnvelope;
   }
@@ -41,65 +51,85 @@ class GeofencingVertexUpdater {
   /**
    * Applies the restrictions described in the geofencing zones to eges by adding
    * {@link RentalRestrictionExtension} to them.
+   * <p>
+   * The updater remembers the zones applied in previous calls. Zones that are unchanged are left
+   * as is, zones that are no longer present or have changed are removed from their edges, and
+   * only new or changed zones are intersected with the street network. The business area border
+   * is only recomputed if any of the business areas have changed.
+   *
+   * @return the edges which got a new extension in this call
    */
   Map<StreetEdge, RentalRestrictionExtension> applyGeofencingZones(
     Collection<GeofencingZone> geofencingZones
   ) {
-    var restrictedZones = geofencingZones.stream().filter(GeofencingZone::hasRestriction).toList();
+    var restrictedZones = geofencingZones
+      .stream()
+      .filter(GeofencingZone::hasRestriction)
+      .collect(Collectors.toSet());
+
+    // remove zones which are gone or have been modified, modified zones are added again below
+    var removedZones = appliedZones
+      .keySet()
+      .stream()
+      .filter(zone -> !restrictedZones.contains(zone))
+      .toList();
+    for (var zone : removedZones) {
+      removeExtensions(appliedZones.remove(zone));
+    }
 
     // these are the edges inside business area where exceptions like "no pass through"
     // or "no drop-off" are added
-    var restrictedEdges = addExtensionToIntersectingStreetEdges(
-      restrictedZones,
-      GeofencingZoneExtension::new
-    );
-
-    var updates = new HashMap<>(restrictedEdges);
+    var updates = new HashMap<StreetEdge, RentalRestrictionExtension>();
+    for (var zone : restrictedZones) {
+      if (!appliedZones.containsKey(zone)) {
+        var added = applyExtension(zone.geometry(), new GeofencingZoneExtension(zone));
+        appliedZones.put(zone, added);
+        updates.putAll(added);
+      }
+    }
 
     var generalBusinessAreas = geofencingZones
       .stream()
       .filter(GeofencingZone::isBusinessArea)
-      .toList();
+      .collect(Collectors.toSet());
 
-    if (!generalBusinessAreas.isEmpty()) {
-      // if the geofencing zones don't have any restrictions then they describe a general business
-      // area which you can traverse freely but are not allowed to leave
-      // here we just take the boundary of the geometry since we want to add a "no pass through"
-      // restriction to any edge intersecting it
-
-      var network = generalBusinessAreas.get(0).id().getFeedId();
-      var polygons = generalBusinessAreas
-        .stream()
-        .map(GeofencingZone::geometry)
-        .toArray(Geometry[]::new);
-
-      var unionOfBusinessAreas = GeometryUtils
-        .getGeometryFactory()
-        .createGeometryCollection(polygons)
-        .union();
-
-      var updated = applyExtension(
-        unionOfBusinessAreas.getBoundary(),
-        new BusinessAreaBorder(network)
-      );
-
-      updates.putAll(updated);
+    if (!generalBusinessAreas.equals(appliedBusinessAreas)) {
+      removeExtensions(appliedBusinessAreaBorder);
+      appliedBusinessAreaBorder = applyBusinessAreaBorder(generalBusinessAreas);
+      appliedBusinessAreas = generalBusinessAreas;
+      updates.putAll(appliedBusinessAreaBorder);
     }
 
     return Map.copyOf(updates);
   }
 
-  private Map<StreetEdge, RentalRestrictionExtension> addExtensionToIntersectingStreetEdges(
-    List<GeofencingZone> zones,
-    Function<GeofencingZone, RentalRestrictionExtension> createExtension
+  private Map<StreetEdge, RentalRestrictionExtension> applyBusinessAreaBorder(
+    Set<GeofencingZone> generalBusinessAreas
   ) {
-    var edgesUpdated = new HashMap<StreetEdge, RentalRestrictionExtension>();
-    for (GeofencingZone zone : zones) {
-      var geom = zone.geometry();
-      var ext = createExtension.apply(zone);
-      edgesUpdated.putAll(applyExtension(geom, ext));
+    if (generalBusinessAreas.isEmpty()) {
+      return Map.of();
     }
-    return edgesUpdated;
+    // if the geofencing zones don't have any restrictions then they describe a general business
+    // area which you can traverse freely but are not allowed to leave
+    // here we just take the boundary of the geometry since we want to add a "no pass through"
+    // restriction to any edge intersecting it
+
+    var network = generalBusinessAreas.iterator().next().id().getFeedId();
+    var polygons = generalBusinessAreas
+      .stream()
+      .map(GeofencingZone::geometry)
+      .toArray(Geometry[]::new);
+
+    var unionOfBusinessAreas = GeometryUtils
+      .getGeometryFactory()
+      .createGeometryCollection(polygons)
+      .union();
+
+    return applyExtension(unionOfBusinessAreas.getBoundary(), new BusinessAreaBorder(network));
+  }
+
+  private static void removeExtensions(Map<StreetEdge, RentalRestrictionExtension> extensions) {
+    extensions.forEach(StreetEdge::removeRentalExtension);
   }
 
   private Map<StreetEdge, RentalRestrictionExtension> applyExtension(
@@ -118,8 +148,11 @@ class GeofencingVertexUpdater {
     } else {
       candidates = Set.copyOf(getEdgesForEnvelope.apply(geom.getEnvelopeInternal()));
     }
+    // zones are often complex polygons which are tested against many edges, so preparing the
+    // geometry (which indexes its segments) pays off quickly
+    var preparedGeom = PreparedGeometryFactory.prepare(geom);
     for (var e : candidates) {
-      if (e instanceof StreetEdge streetEdge && streetEdge.getGeometry().intersects(geom)) {
+      if (e instanceof StreetEdge streetEdge && preparedGeom.intersects(streetEdge.getGeometry())) {
         streetEdge.addRentalRestriction(ext);
         edgesUpdated.put(streetEdge, ext);
       }
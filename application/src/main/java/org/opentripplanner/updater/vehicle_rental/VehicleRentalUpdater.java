@@ -1,5 +1,6 @@
 package org.opentripplanner.updater.vehicle_rental;
 
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,8 +22,6 @@ import org.opentripplanner.service.vehiclerental.street.StreetVehicleRentalLink;
 import org.opentripplanner.service.vehiclerental.street.VehicleRentalEdge;
 import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
 import org.opentripplanner.street.model.RentalFormFactor;
-import org.opentripplanner.street.model.RentalRestrictionExtension;
-import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.VertexFactory;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
@@ -53,10 +52,21 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
   private final VehicleRentalDatasource source;
   private final String nameForLogging;
 
-  private Map<StreetEdge, RentalRestrictionExtension> latestModifiedEdges = Map.of();
   private Set<GeofencingZone> latestAppliedGeofencingZones = Set.of();
+  /**
+   * Keeps track of the zones applied to the street edges, so that only changed zones need to be
+   * applied on the next update. Created on the first update with geofencing zones.
+   */
+  private GeofencingVertexUpdater geofencingVertexUpdater;
+  private final Timer geofencingTimer;
   private final Map<FeedScopedId, VehicleRentalPlaceVertex> verticesByStation = new HashMap<>();
   private final Map<FeedScopedId, DisposableEdgeCollection> tempEdgesByStation = new HashMap<>();
+  /**
+   * The position and form factors each vertex in {@link #verticesByStation} was linked with. If
+   * these change, the vertex is removed and linked again; otherwise the existing vertex and edges
+   * are kept and only the place is replaced.
+   */
+  private final Map<FeedScopedId, LinkedPlace> linkedPlaces = new HashMap<>();
   private final VertexLinker linker;
 
   private final VehicleRentalRepository service;
@@ -78,6 +88,8 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         parameters.sourceParameters().url()
       );
     this.unlinkedPlaceThrottle = Throttle.ofOneSecond();
+    this.geofencingTimer =
+      metrics.timer("geofencing", "Time spent applying changed geofencing zones to the graph");
 
     // Creation of network linker library will not modify the graph
     this.linker = vertexLinker;
@@ -153,11 +165,25 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
       Set<FeedScopedId> stationSet = new HashSet<>();
       var vertexFactory = new VertexFactory(context.graph());
 
+      int added = 0;
+      int relinked = 0;
+      int removed = 0;
+
       /* add any new stations and update vehicle counts for existing stations */
       for (VehicleRentalPlace station : stations) {
         service.addVehicleRentalStation(station);
         stationSet.add(station.getId());
         VehicleRentalPlaceVertex vehicleRentalVertex = verticesByStation.get(station.getId());
+        var linkedPlace = LinkedPlace.of(station);
+
+        if (vehicleRentalVertex != null && !linkedPlace.equals(linkedPlaces.get(station.getId()))) {
+          // The place has moved or its form factors have changed, link it again
+          removeVertex(station.getId());
+          vehicleRentalVertex = null;
+          ++relinked;
+        } else if (vehicleRentalVertex == null) {
+          ++added;
+        }
 
         if (vehicleRentalVertex == null) {
           vehicleRentalVertex = vertexFactory.vehicleRentalPlace(station);
@@ -190,19 +216,14 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
               )
             );
           }
-          Set<RentalFormFactor> formFactors = Stream
-            .concat(
-              station.getAvailablePickupFormFactors(false).stream(),
-              station.getAvailableDropoffFormFactors(false).stream()
-            )
-            .collect(Collectors.toSet());
-          for (RentalFormFactor formFactor : formFactors) {
+          for (RentalFormFactor formFactor : linkedPlace.formFactors()) {
             tempEdges.addEdge(
               VehicleRentalEdge.createVehicleRentalEdge(vehicleRentalVertex, formFactor)
             );
           }
           verticesByStation.put(station.getId(), vehicleRentalVertex);
           tempEdgesByStation.put(station.getId(), tempEdges);
+          linkedPlaces.put(station.getId(), linkedPlace);
         } else {
           vehicleRentalVertex.setStation(station);
         }
@@ -218,34 +239,65 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
       }
       for (FeedScopedId station : toRemove) {
         // post-iteration removal to avoid concurrent modification
-        verticesByStation.remove(station);
-        tempEdgesByStation.get(station).disposeEdges();
-        tempEdgesByStation.remove(station);
+        removeVertex(station);
+        ++removed;
       }
 
+      LOG.debug(
+        "Applied {} vehicle rental places for {}: {} added, {} relinked, {} removed",
+        stations.size(),
+        nameForLogging,
+        added,
+        relinked,
+        removed
+      );
+
       // this check relies on the generated equals for the record which also recursively checks that
       // the JTS geometries are equal
       if (!geofencingZones.isEmpty() && !geofencingZones.equals(latestAppliedGeofencingZones)) {
         LOG.info("Computing geofencing zones for {}", nameForLogging);
         var start = System.currentTimeMillis();
 
-        latestModifiedEdges.forEach(StreetEdge::removeRentalExtension);
-
-        var updater = new GeofencingVertexUpdater(
-          context.graph().getStreetIndex()::getEdgesForEnvelope
-        );
-        latestModifiedEdges = updater.applyGeofencingZones(geofencingZones);
+        if (geofencingVertexUpdater == null) {
+          geofencingVertexUpdater =
+            new GeofencingVertexUpdater(context.graph().getStreetIndex()::getEdgesForEnvelope);
+        }
+        var updatedEdges = geofencingVertexUpdater.applyGeofencingZones(geofencingZones);
         latestAppliedGeofencingZones = geofencingZones;
 
         var end = System.currentTimeMillis();
         var millis = Duration.ofMillis(end - start);
+        geofencingTimer.record(millis);
         LOG.info(
           "Geofencing zones computation took {}. Added extension to {} edges. For {}",
           TimeUtils.durationToStrCompact(millis),
-          latestModifiedEdges.size(),
+          updatedEdges.size(),
           nameForLogging
         );
       }
     }
+
+    private void removeVertex(FeedScopedId station) {
+      verticesByStation.remove(station);
+      linkedPlaces.remove(station);
+      tempEdgesByStation.remove(station).disposeEdges();
+    }
+  }
+
+  /**
+   * The state of a rental place that decides how its vertex is linked to the street network and
+   * which rental edges it has. Everything else, like the number of available vehicles, can be
+   * updated in place without touching the graph.
+   */
+  private record LinkedPlace(double latitude, double longitude, Set<RentalFormFactor> formFactors) {
+    static LinkedPlace of(VehicleRentalPlace place) {
+      Set<RentalFormFactor> formFactors = Stream
+        .concat(
+          place.getAvailablePickupFormFactors(false).stream(),
+          place.getAvailableDropoffFormFactors(false).stream()
+        )
+        .collect(Collectors.toSet());
+      return new LinkedPlace(place.getLatitude(), place.getLongitude(), formFactors);
+    }
   }
 }
@@ -7,10 +7,12 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import org.mobilitydata.gbfs.v2_3.gbfs.GBFS;
 import org.mobilitydata.gbfs.v2_3.gbfs.GBFSFeed;
 import org.mobilitydata.gbfs.v2_3.gbfs.GBFSFeedName;
 import org.mobilitydata.gbfs.v2_3.gbfs.GBFSFeeds;
+import org.opentripplanner.framework.io.HttpCacheValidators;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientException;
 import org.opentripplanner.framework.io.OtpHttpClientFactory;
@@ -104,18 +106,20 @@ public class GbfsFeedLoader {
 
   /**
    * Checks if any of the feeds should be updated base on the TTL and fetches. Returns true, if any
-   * feeds were updated.
+   * feeds were updated. Feeds which the server reports as not modified do not count as updated.
    */
   public boolean update() {
     boolean didUpdate = false;
 
     for (GBFSFeedUpdater<?> updater : feedUpdaters.values()) {
       if (updater.shouldUpdate()) {
-        boolean success = updater.fetchData();
-        if (!success) {
+        FetchResult result = updater.fetchData();
+        if (result == FetchResult.FAILED) {
           return false;
         }
-        didUpdate = true;
+        if (result == FetchResult.UPDATED) {
+          didUpdate = true;
+        }
       }
     }
 
@@ -146,6 +150,12 @@ public class GbfsFeedLoader {
 
   /* private static classes */
 
+  private enum FetchResult {
+    UPDATED,
+    NOT_MODIFIED,
+    FAILED,
+  }
+
   private class GBFSFeedUpdater<T> {
 
     /** URL for the individual GBFS file */
@@ -154,7 +164,10 @@ public class GbfsFeedLoader {
     /** To which class should the file be deserialized to */
     private final Class<T> implementingClass;
 
+    private final HttpCacheValidators cacheValidators = new HttpCacheValidators();
+
     private int nextUpdate;
+    private Integer ttl;
     private T data;
 
     private GBFSFeedUpdater(GBFSFeed feed) {
@@ -166,13 +179,32 @@ public class GbfsFeedLoader {
       return data;
     }
 
-    private boolean fetchData() {
-      T newData = fetchFeed(url, httpHeaders, implementingClass);
-      if (newData == null) {
-        LOG.warn("Could not fetch GBFS data for {}. Retrying.", url);
+    private FetchResult fetchData() {
+      Optional<T> response;
+      try {
+        response =
+          otpHttpClient.getAndMapIfModified(
+            url,
+            httpHeaders.asMap(),
+            cacheValidators,
+            is -> objectMapper.readValue(is, implementingClass)
+          );
+      } catch (OtpHttpClientException e) {
+        LOG.warn(
+          "Could not fetch GBFS data for {}. Retrying. Details: {}.",
+          url,
+          e.getMessage(),
+          e
+        );
         nextUpdate = getCurrentTimeSeconds();
-        return false;
+        return FetchResult.FAILED;
+      }
+      if (response.isEmpty()) {
+        // The content, and thereby lastUpdated, is unchanged. Wait another TTL before asking again.
+        nextUpdate = getCurrentTimeSeconds() + (ttl == null ? 0 : ttl);
+        return FetchResult.NOT_MODIFIED;
       }
+      T newData = response.get();
       data = newData;
 
       try {
@@ -181,7 +213,7 @@ public class GbfsFeedLoader {
         Integer lastUpdated = (Integer) implementingClass
           .getMethod("getLastUpdated")
           .invoke(newData);
-        Integer ttl = (Integer) implementingClass.getMethod("getTtl").invoke(newData);
+        ttl = (Integer) implementingClass.getMethod("getTtl").invoke(newData);
         if (lastUpdated == null || ttl == null) {
           nextUpdate = getCurrentTimeSeconds();
         } else {
@@ -196,7 +228,7 @@ public class GbfsFeedLoader {
         LOG.error("Invalid lastUpdated or ttl for {}", url);
         nextUpdate = getCurrentTimeSeconds();
       }
-      return true;
+      return FetchResult.UPDATED;
     }
 
     private boolean shouldUpdate() {
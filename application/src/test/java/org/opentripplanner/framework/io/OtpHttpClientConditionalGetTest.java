@@ -0,0 +1,113 @@
+package org.opentripplanner.framework.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test conditional GET requests against a local stand-in HTTP server, which answers with
+ * 304 Not Modified when the request carries the current ETag.
+ */
+class OtpHttpClientConditionalGetTest {
+
+  private static final String ETAG = "\"v1\"";
+  private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+  private static final String BODY = "payload";
+
+  private final List<String> receivedIfNoneMatch = new ArrayList<>();
+  private final OtpHttpClientFactory clientFactory = new OtpHttpClientFactory();
+  private final OtpHttpClient client = clientFactory.create(
+    LoggerFactory.getLogger(OtpHttpClientConditionalGetTest.class)
+  );
+  private HttpServer server;
+  private URI uri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+      "/feed",
+      exchange -> {
+        var ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        receivedIfNoneMatch.add(ifNoneMatch);
+        if (ETAG.equals(ifNoneMatch)) {
+          exchange.sendResponseHeaders(304, -1);
+        } else {
+          var body = BODY.getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("ETag", ETAG);
+          exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+          exchange.sendResponseHeaders(200, body.length);
+          exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+      }
+    );
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/feed");
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+    clientFactory.close();
+  }
+
+  @Test
+  void notModifiedAfterFirstRequest() {
+    var validators = new HttpCacheValidators();
+
+    var first = client.getAndMapIfModified(uri, Map.of(), validators, this::readBody);
+    assertEquals(BODY, first.orElseThrow());
+    assertEquals(
+      Map.of("If-None-Match", ETAG, "If-Modified-Since", LAST_MODIFIED),
+      validators.requestHeaders()
+    );
+
+    var second = client.getAndMapIfModified(uri, Map.of(), validators, this::readBody);
+    assertTrue(second.isEmpty());
+
+    assertNull(receivedIfNoneMatch.get(0));
+    assertEquals(ETAG, receivedIfNoneMatch.get(1));
+  }
+
+  @Test
+  void validatorsAreNotUpdatedIfMappingFails() {
+    var validators = new HttpCacheValidators();
+
+    assertThrows(
+      OtpHttpClientException.class,
+      () ->
+        client.getAndMapIfModified(
+          uri,
+          Map.of(),
+          validators,
+          is -> {
+            throw new IOException("Parse error");
+          }
+        )
+    );
+
+    assertTrue(validators.requestHeaders().isEmpty());
+    var response = client.getAndMapIfModified(uri, Map.of(), validators, this::readBody);
+    assertEquals(BODY, response.orElseThrow());
+  }
+
+  private String readBody(InputStream is) throws IOException {
+    return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+  }
+}
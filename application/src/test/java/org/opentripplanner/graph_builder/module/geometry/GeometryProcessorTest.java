@@ -0,0 +1,267 @@
+package org.opentripplanner.graph_builder.module.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueStore;
+import org.opentripplanner.graph_builder.issues.MissingShapeGeometry;
+import org.opentripplanner.model.ShapePoint;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.impl.OtpTransitServiceBuilder;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.service.SiteRepository;
+
+class GeometryProcessorTest {
+
+  private static final double MAX_DISTANCE = 150;
+  private static final double METERS_PER_DEGREE_LAT = 111_000;
+  private static final double METERS_PER_DEGREE_LON = METERS_PER_DEGREE_LAT / 2;
+
+  private final TimetableRepositoryForTest testModel = TimetableRepositoryForTest.of();
+  private final Random random = new Random(42);
+
+  /**
+   * The shape goes east and returns west along the same points, so every stop is close to two
+   * segments, one on each leg.
+   */
+  @Test
+  void matchStopsToSelfOverlappingShape() {
+    var coordinates = new ArrayList<Coordinate>();
+    for (int i = 0; i <= 10; ++i) {
+      coordinates.add(new Coordinate(10.0 + i * 0.002, 60.0));
+    }
+    for (int i = 9; i >= 0; --i) {
+      coordinates.add(new Coordinate(10.0 + i * 0.002, 60.0));
+    }
+    var shape = lineString(coordinates);
+
+    for (int i = 0; i < 100; ++i) {
+      assertSameStopMatchesAsLinearSearch(id("overlapping-" + i), shape, 8);
+    }
+  }
+
+  /**
+   * A random walk inside a small area makes shapes with loops, which cross and overlap
+   * themselves. Some stops are placed outside the snap distance.
+   */
+  @Test
+  void matchStopsToLoopingShape() {
+    for (int i = 0; i < 200; ++i) {
+      assertSameStopMatchesAsLinearSearch(id("loop-" + i), randomWalk(40), 10);
+    }
+  }
+
+  @Test
+  void issuesAreReportedForEachTrip() {
+    var issueStore = new DefaultDataImportIssueStore();
+    var builder = new OtpTransitServiceBuilder(new SiteRepository(), issueStore);
+    var shapeId = id("missing");
+    var stops = List.of(new Coordinate(10.0, 60.0), new Coordinate(10.01, 60.0));
+    var t1 = trip(builder, "t1", shapeId, stops);
+    var t2 = trip(builder, "t2", shapeId, stops);
+    var subject = new GeometryProcessor(builder, MAX_DISTANCE, issueStore);
+
+    subject.createHopGeometries(t1);
+    subject.createHopGeometries(t2);
+
+    var issues = issueStore
+      .listIssues()
+      .stream()
+      .filter(MissingShapeGeometry.class::isInstance)
+      .toList();
+    assertEquals(2, issues.size());
+  }
+
+  @Test
+  void geometriesAreReusedByTripsWithTheSameShapeAndStops() {
+    var builder = new OtpTransitServiceBuilder(new SiteRepository(), DataImportIssueStore.NOOP);
+    var shapeId = id("shape");
+    var shape = List.of(
+      new Coordinate(10.0, 60.0),
+      new Coordinate(10.005, 60.0),
+      new Coordinate(10.01, 60.0)
+    );
+    for (int i = 0; i < shape.size(); ++i) {
+      var point = new ShapePoint();
+      point.setShapeId(shapeId);
+      point.setSequence(i);
+      point.setLon(shape.get(i).x);
+      point.setLat(shape.get(i).y);
+      builder.getShapePoints().put(shapeId, point);
+    }
+    var stops = List.of(new Coordinate(10.001, 60.0001), new Coordinate(10.009, 60.0001));
+    var t1 = trip(builder, "t1", shapeId, stops);
+    var t2 = trip(builder, "t2", shapeId, stops);
+    var subject = new GeometryProcessor(builder, MAX_DISTANCE, DataImportIssueStore.NOOP);
+
+    var geometries = subject.createHopGeometries(t1);
+
+    assertEquals(1, geometries.size());
+    assertSame(geometries, subject.createHopGeometries(t2));
+  }
+
+  private void assertSameStopMatchesAsLinearSearch(
+    FeedScopedId shapeId,
+    LineString shape,
+    int nStops
+  ) {
+    var stopTimes = stopTimes(randomStopsAlong(shape, nStops));
+    var subject = new GeometryProcessor(
+      new OtpTransitServiceBuilder(new SiteRepository(), DataImportIssueStore.NOOP),
+      MAX_DISTANCE,
+      DataImportIssueStore.NOOP
+    );
+
+    var expected = findPossibleSegmentsByLinearSearch(stopTimes, shape);
+    var result = subject.findPossibleSegmentsForStops(stopTimes, shapeId, shape);
+
+    assertEquals(expected, indexes(result), shapeId.toString());
+  }
+
+  /**
+   * This is how the stops were matched to the shape segments before the segments were indexed:
+   * the distance to every segment is computed for each stop.
+   */
+  private static List<List<Integer>> findPossibleSegmentsByLinearSearch(
+    List<StopTime> stopTimes,
+    LineString shape
+  ) {
+    var segments = new ArrayList<IndexedLineSegment>();
+    for (int i = 0; i < shape.getNumPoints() - 1; ++i) {
+      segments.add(new IndexedLineSegment(i, shape.getCoordinateN(i), shape.getCoordinateN(i + 1)));
+    }
+    List<List<IndexedLineSegment>> possibleSegmentsForStop = new ArrayList<>();
+    int minSegmentIndex = 0;
+    for (StopTime stopTime : stopTimes) {
+      Coordinate coord = stopTime.getStop().getCoordinate().asJtsCoordinate();
+      List<IndexedLineSegment> stopSegments = new ArrayList<>();
+      double bestDistance = Double.MAX_VALUE;
+      IndexedLineSegment bestSegment = null;
+      int maxSegmentIndex = -1;
+      int minSegmentIndexForThisStop = -1;
+      for (IndexedLineSegment segment : segments) {
+        if (segment.index < minSegmentIndex) {
+          continue;
+        }
+        double distance = segment.distance(coord);
+        if (distance < MAX_DISTANCE) {
+          stopSegments.add(segment);
+          maxSegmentIndex = segment.index;
+          if (minSegmentIndexForThisStop == -1) minSegmentIndexForThisStop = segment.index;
+        } else if (distance < bestDistance) {
+          bestDistance = distance;
+          bestSegment = segment;
+          if (maxSegmentIndex != -1) {
+            maxSegmentIndex = segment.index;
+          }
+        }
+      }
+      if (stopSegments.isEmpty() && bestSegment != null) {
+        stopSegments.add(bestSegment);
+        minSegmentIndex = bestSegment.index;
+      } else {
+        minSegmentIndex = minSegmentIndexForThisStop;
+        stopSegments.sort(new IndexedLineSegmentComparator(coord));
+      }
+      for (var previous : possibleSegmentsForStop) {
+        int max = maxSegmentIndex;
+        previous.removeIf(it -> it.index > max);
+      }
+      possibleSegmentsForStop.add(stopSegments);
+    }
+    return indexes(possibleSegmentsForStop);
+  }
+
+  private LineString randomWalk(int nPoints) {
+    var coordinates = new ArrayList<Coordinate>();
+    double x = 10.0;
+    double y = 60.0;
+    double heading = random.nextDouble() * 2 * Math.PI;
+    for (int i = 0; i < nPoints; ++i) {
+      coordinates.add(new Coordinate(x, y));
+      double meters = 50 + random.nextDouble() * 250;
+      heading += (random.nextDouble() - 0.5) * Math.PI;
+      x += Math.cos(heading) * meters / METERS_PER_DEGREE_LON;
+      y += Math.sin(heading) * meters / METERS_PER_DEGREE_LAT;
+      // Stay inside an area of about 1 x 1 km, so the shape crosses itself
+      if (Math.abs(x - 10.0) > 0.01 || Math.abs(y - 60.0) > 0.005) {
+        heading += Math.PI;
+      }
+    }
+    return lineString(coordinates);
+  }
+
+  /**
+   * Place the stops in order along the shape, each moved up to 250 meters away from it.
+   */
+  private List<Coordinate> randomStopsAlong(LineString shape, int nStops) {
+    var positions = new ArrayList<Double>();
+    for (int i = 0; i < nStops; ++i) {
+      positions.add(random.nextDouble() * (shape.getNumPoints() - 1));
+    }
+    positions.sort(Double::compare);
+
+    var stops = new ArrayList<Coordinate>();
+    for (double position : positions) {
+      int i = (int) position;
+      double fraction = position - i;
+      var start = shape.getCoordinateN(i);
+      var end = shape.getCoordinateN(i + 1);
+      double offset = random.nextDouble() * 250;
+      double direction = random.nextDouble() * 2 * Math.PI;
+      double x = start.x + (end.x - start.x) * fraction;
+      double y = start.y + (end.y - start.y) * fraction;
+      x += Math.cos(direction) * offset / METERS_PER_DEGREE_LON;
+      y += Math.sin(direction) * offset / METERS_PER_DEGREE_LAT;
+      stops.add(new Coordinate(x, y));
+    }
+    return stops;
+  }
+
+  private List<StopTime> stopTimes(List<Coordinate> stops) {
+    var trip = TimetableRepositoryForTest.trip("trip").build();
+    var stopTimes = new ArrayList<StopTime>();
+    for (int i = 0; i < stops.size(); ++i) {
+      var stopTime = new StopTime();
+      stopTime.setTrip(trip);
+      stopTime.setStopSequence(i);
+      stopTime.setStop(testModel.stop("S" + i, stops.get(i).y, stops.get(i).x).build());
+      stopTimes.add(stopTime);
+    }
+    return stopTimes;
+  }
+
+  private Trip trip(
+    OtpTransitServiceBuilder builder,
+    String id,
+    FeedScopedId shapeId,
+    List<Coordinate> stops
+  ) {
+    var trip = TimetableRepositoryForTest.trip(id).withShapeId(shapeId).build();
+    var stopTimes = stopTimes(stops);
+    stopTimes.forEach(it -> it.setTrip(trip));
+    builder.getStopTimesSortedByTrip().put(trip, stopTimes);
+    return trip;
+  }
+
+  private static LineString lineString(List<Coordinate> coordinates) {
+    return GeometryUtils
+      .getGeometryFactory()
+      .createLineString(coordinates.toArray(Coordinate[]::new));
+  }
+
+  private static List<List<Integer>> indexes(List<List<IndexedLineSegment>> segments) {
+    return segments.stream().map(it -> it.stream().map(s -> s.index).toList()).toList();
+  }
+}
@@ -0,0 +1,103 @@
+package org.opentripplanner.graph_builder.module.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+
+class ShapeSegmentIndexTest {
+
+  private static final double MAX_DISTANCE = 150;
+
+  /** A shape going east and back west again, about 100 meters further north. */
+  private static final LineString SHAPE = GeometryUtils.makeLineString(
+    10.00,
+    60.000,
+    10.01,
+    60.000,
+    10.02,
+    60.000,
+    10.02,
+    60.001,
+    10.01,
+    60.001,
+    10.00,
+    60.001
+  );
+
+  private final ShapeSegmentIndex subject = new ShapeSegmentIndex(SHAPE);
+
+  @Test
+  void findSegmentsWithinDistance() {
+    var coord = new Coordinate(10.005, 60.0005);
+
+    assertEquals(List.of(0, 4), indexes(find(coord, 0)));
+    assertEquals(List.of(4), indexes(find(coord, 1)));
+  }
+
+  @Test
+  void findSegmentsWithinDistanceIsSameAsLinearSearch() {
+    for (double x = 9.99; x < 10.03; x += 0.001) {
+      for (double y = 59.998; y < 60.003; y += 0.0005) {
+        var coord = new Coordinate(x, y);
+        var expected = subject
+          .segmentsFrom(0)
+          .stream()
+          .filter(it -> it.distance(coord) < MAX_DISTANCE)
+          .toList();
+        assertEquals(indexes(expected), indexes(find(coord, 0)), coord.toString());
+      }
+    }
+  }
+
+  @Test
+  void findNearestSegment() {
+    var coord = new Coordinate(10.015, 60.01);
+
+    assertTrue(find(coord, 0).isEmpty());
+    assertEquals(3, subject.findNearestSegment(coord, 0).index);
+    assertEquals(4, subject.findNearestSegment(new Coordinate(10.015, 60.0), 4).index);
+  }
+
+  @Test
+  void findNearestSegmentNotWithinDistanceIsSameAsLinearSearch() {
+    for (double x = 9.99; x < 10.03; x += 0.001) {
+      for (double y = 59.998; y < 60.003; y += 0.0005) {
+        var coord = new Coordinate(x, y);
+        for (int minSegmentIndex = 0; minSegmentIndex < 5; ++minSegmentIndex) {
+          IndexedLineSegment expected = null;
+          for (var it : subject.segmentsFrom(minSegmentIndex)) {
+            double distance = it.distance(coord);
+            if (
+              distance >= MAX_DISTANCE && (expected == null || distance < expected.distance(coord))
+            ) {
+              expected = it;
+            }
+          }
+          var result = subject.findNearestSegmentNotWithinDistance(
+            coord,
+            MAX_DISTANCE,
+            minSegmentIndex
+          );
+          assertEquals(
+            expected == null ? null : expected.index,
+            result == null ? null : result.index,
+            coord + " " + minSegmentIndex
+          );
+        }
+      }
+    }
+  }
+
+  private List<IndexedLineSegment> find(Coordinate coord, int minSegmentIndex) {
+    return subject.findSegmentsWithinDistance(coord, MAX_DISTANCE, minSegmentIndex);
+  }
+
+  private static List<Integer> indexes(List<IndexedLineSegment> segments) {
+    return segments.stream().map(it -> it.index).toList();
+  }
+}
@@ -0,0 +1,38 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentUnionFindTest {
+
+  @Test
+  void union() {
+    var subject = new ConcurrentUnionFind(5);
+    subject.union(3, 4);
+    subject.union(1, 3);
+
+    assertEquals(1, subject.find(4));
+    assertEquals(subject.find(1), subject.find(3));
+    assertNotEquals(subject.find(0), subject.find(1));
+    assertEquals(2, subject.find(2));
+  }
+
+  @Test
+  void parallelUnion() {
+    int size = 100_000;
+    var subject = new ConcurrentUnionFind(size);
+
+    // Link all even and all odd numbers, in random order
+    IntStream
+      .range(2, size)
+      .parallel()
+      .forEach(i -> subject.union(i, i - 2));
+
+    for (int i = 0; i < size; i++) {
+      assertEquals(i % 2, subject.find(i));
+    }
+  }
+}
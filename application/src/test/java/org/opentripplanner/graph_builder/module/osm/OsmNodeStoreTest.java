@@ -0,0 +1,78 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.osm.model.OsmNode;
+
+class OsmNodeStoreTest {
+
+  private final OsmNodeStore subject = new OsmNodeStore();
+
+  @Test
+  void untaggedNode() {
+    subject.add(node(7, 59.9, 10.7));
+
+    var node = subject.get(7);
+    assertEquals(7, node.getId());
+    assertEquals(59.9, node.lat);
+    assertEquals(10.7, node.lon);
+    assertTrue(node.getTags().isEmpty());
+
+    // A new instance is created for each lookup, but they are equal
+    assertNotSame(node, subject.get(7));
+    assertEquals(node, subject.get(7));
+  }
+
+  @Test
+  void taggedNodeIsKeptAsObject() {
+    var node = node(8, 1.0, 2.0);
+    node.addTag("highway", "traffic_signals");
+    subject.add(node);
+
+    assertSame(node, subject.get(8));
+  }
+
+  @Test
+  void primitiveAccessors() {
+    subject.add(node(1, 59.9, 10.7));
+    var tagged = node(2, 60.1, 11.2);
+    tagged.addTag("barrier", "bollard");
+    subject.add(tagged);
+
+    assertEquals(59.9, subject.lat(1));
+    assertEquals(10.7, subject.lon(1));
+    assertNull(subject.getTagged(1));
+
+    assertEquals(60.1, subject.lat(2));
+    assertEquals(11.2, subject.lon(2));
+    assertSame(tagged, subject.getTagged(2));
+  }
+
+  @Test
+  void containsAndSize() {
+    subject.add(node(1, 1.0, 1.0));
+    var tagged = node(2, 2.0, 2.0);
+    tagged.addTag("barrier", "bollard");
+    subject.add(tagged);
+
+    assertTrue(subject.contains(1));
+    assertTrue(subject.contains(2));
+    assertFalse(subject.contains(3));
+    assertNull(subject.get(3));
+    assertEquals(2, subject.size());
+  }
+
+  private static OsmNode node(long id, double lat, double lon) {
+    var node = new OsmNode();
+    node.setId(id);
+    node.lat = lat;
+    node.lon = lon;
+    return node;
+  }
+}
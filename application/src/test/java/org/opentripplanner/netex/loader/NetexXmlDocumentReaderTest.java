@@ -0,0 +1,56 @@
+package org.opentripplanner.netex.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.xml.bind.JAXBException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.base.ByteArrayDataSource;
+
+class NetexXmlDocumentReaderTest {
+
+  private static final DataSource A = document("a.xml", "A");
+  private static final DataSource B = document("b.xml", "B");
+  private static final DataSource C = document("c.xml", "C");
+
+  @Test
+  void readDocumentsInOrder() throws JAXBException {
+    try (var subject = new NetexXmlDocumentReader(List.of(A, B, C), 2)) {
+      assertEquals("A", subject.read(A).getParticipantRef());
+      assertEquals("B", subject.read(B).getParticipantRef());
+      assertEquals("C", subject.read(C).getParticipantRef());
+    }
+  }
+
+  @Test
+  void readDocumentsOutOfOrder() {
+    try (var subject = new NetexXmlDocumentReader(List.of(A, B), 2)) {
+      assertThrows(IllegalStateException.class, () -> subject.read(B));
+    }
+  }
+
+  @Test
+  void parseError() {
+    var invalid = new ByteArrayDataSource("x.xml", "x.xml", FileType.NETEX, 0, 0, false)
+      .withBytes("<PublicationDelivery".getBytes(StandardCharsets.UTF_8));
+    try (var subject = new NetexXmlDocumentReader(List.of(invalid), 1)) {
+      assertThrows(JAXBException.class, () -> subject.read(invalid));
+    }
+  }
+
+  private static DataSource document(String name, String participantRef) {
+    var xml =
+      """
+      <PublicationDelivery xmlns="http://www.netex.org.uk/netex" version="1.0">
+        <PublicationTimestamp>2024-01-01T00:00:00</PublicationTimestamp>
+        <ParticipantRef>%s</ParticipantRef>
+      </PublicationDelivery>
+      """.formatted(participantRef);
+    return new ByteArrayDataSource(name, name, FileType.NETEX, 0, 0, false)
+      .withBytes(xml.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,245 @@
+package org.opentripplanner.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.protobuf.ByteString;
+import crosby.binary.Fileformat;
+import crosby.binary.Osmformat;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+
+class OsmPbfReaderTest {
+
+  private static final int N_THREADS = 3;
+
+  @Test
+  void blocksAreParsedInFileOrder() throws IOException {
+    var pbf = new PbfFixture().header();
+    for (long id = 1; id <= 40; ++id) {
+      pbf.nodes(id);
+    }
+    var parser = new RecordingParser();
+
+    try (var subject = new OsmPbfReader(N_THREADS)) {
+      subject.read(pbf.toInputStream(), parser, OsmParserPhase.Relations);
+    }
+
+    assertEquals(1, parser.headers);
+    assertEquals(LongStream.rangeClosed(1, 40).boxed().toList(), parser.entities);
+  }
+
+  @Test
+  void wayAndNodePassesSkipBlocksUsingTheBlockIndex() throws IOException {
+    var pbf = new PbfFixture().header().nodes(1, 2).zlibNodes(3).ways(10, 11).relations(20);
+
+    try (var subject = new OsmPbfReader(N_THREADS)) {
+      var parser = new RecordingParser();
+      subject.read(pbf.toInputStream(), parser, OsmParserPhase.Relations);
+      assertEquals(List.of(1L, 2L, 3L, 10L, 11L, 20L), parser.entities);
+
+      // The blocks not needed in a pass are skipped without being decoded, so corrupting them
+      // does not fail the pass.
+      parser = new RecordingParser();
+      var ways = pbf.copy().corrupt(1).corrupt(2).corrupt(4);
+      subject.read(ways.toInputStream(), parser, OsmParserPhase.Ways);
+      assertEquals(List.of(10L, 11L), parser.entities);
+
+      parser = new RecordingParser();
+      var nodes = pbf.copy().corrupt(3).corrupt(4);
+      subject.read(nodes.toInputStream(), parser, OsmParserPhase.Nodes);
+      assertEquals(List.of(1L, 2L, 3L), parser.entities);
+
+      // The header block is read in every pass
+      assertEquals(1, parser.headers);
+    }
+  }
+
+  @Test
+  void errorInWorkerIsThrownByRead() {
+    var pbf = new PbfFixture().header().nodes(1).nodes(2).corrupt(2).nodes(3);
+    var parser = new RecordingParser();
+
+    try (var subject = new OsmPbfReader(N_THREADS)) {
+      var ex = assertThrows(
+        IOException.class,
+        () -> subject.read(pbf.toInputStream(), parser, OsmParserPhase.Relations)
+      );
+      assertTrue(ex.getCause().getMessage().contains("Corrupt PBF blob"), ex.getMessage());
+    }
+    // The blocks before the corrupt block are parsed, the blocks after are not
+    assertEquals(List.of(1L), parser.entities);
+  }
+
+  /**
+   * Record the ids of the entities in the parsed blocks, in parse order. The entities are not
+   * added to the OSM database.
+   */
+  private static class RecordingParser extends OsmParser {
+
+    private final List<Long> entities = new ArrayList<>();
+    private int headers = 0;
+
+    RecordingParser() {
+      super(
+        new OsmDatabase(DataImportIssueStore.NOOP),
+        new OsmProvider(new File("test.osm.pbf"), false)
+      );
+    }
+
+    @Override
+    public void parse(Osmformat.HeaderBlock block) {
+      ++headers;
+    }
+
+    @Override
+    protected void parseNodes(List<Osmformat.Node> nodes) {
+      nodes.forEach(it -> entities.add(it.getId()));
+    }
+
+    @Override
+    protected void parseWays(List<Osmformat.Way> ways) {
+      ways.forEach(it -> entities.add(it.getId()));
+    }
+
+    @Override
+    protected void parseRelations(List<Osmformat.Relation> relations) {
+      relations.forEach(it -> entities.add(it.getId()));
+    }
+
+    @Override
+    protected void parseDense(Osmformat.DenseNodes nodes) {}
+  }
+
+  /**
+   * Build a small PBF file in memory, one block at the time.
+   */
+  private static class PbfFixture {
+
+    private final List<String> types = new ArrayList<>();
+    private final List<byte[]> blobs = new ArrayList<>();
+
+    PbfFixture header() {
+      return add("OSMHeader", raw(Osmformat.HeaderBlock.newBuilder().build().toByteArray()));
+    }
+
+    PbfFixture nodes(long... ids) {
+      return data(raw(nodeBlock(ids)));
+    }
+
+    PbfFixture zlibNodes(long... ids) {
+      var bytes = nodeBlock(ids);
+      var deflater = new Deflater();
+      deflater.setInput(bytes);
+      deflater.finish();
+      var buffer = new byte[bytes.length + 64];
+      int size = deflater.deflate(buffer);
+      deflater.end();
+      return data(
+        Fileformat.Blob
+          .newBuilder()
+          .setRawSize(bytes.length)
+          .setZlibData(ByteString.copyFrom(buffer, 0, size))
+          .build()
+      );
+    }
+
+    PbfFixture ways(long... ids) {
+      var group = Osmformat.PrimitiveGroup.newBuilder();
+      for (long id : ids) {
+        group.addWays(Osmformat.Way.newBuilder().setId(id));
+      }
+      return data(raw(dataBlock(group)));
+    }
+
+    PbfFixture relations(long... ids) {
+      var group = Osmformat.PrimitiveGroup.newBuilder();
+      for (long id : ids) {
+        group.addRelations(Osmformat.Relation.newBuilder().setId(id));
+      }
+      return data(raw(dataBlock(group)));
+    }
+
+    /**
+     * Replace the blob at the given position with zlib data which can not be inflated.
+     */
+    PbfFixture corrupt(int blockNr) {
+      var garbage = new byte[blobs.get(blockNr).length];
+      Arrays.fill(garbage, (byte) 0x7f);
+      var blob = Fileformat.Blob
+        .newBuilder()
+        .setRawSize(100)
+        .setZlibData(ByteString.copyFrom(garbage))
+        .build();
+      blobs.set(blockNr, blob.toByteArray());
+      return this;
+    }
+
+    PbfFixture copy() {
+      var copy = new PbfFixture();
+      copy.types.addAll(types);
+      copy.blobs.addAll(blobs);
+      return copy;
+    }
+
+    ByteArrayInputStream toInputStream() throws IOException {
+      var bytes = new ByteArrayOutputStream();
+      var out = new DataOutputStream(bytes);
+      for (int i = 0; i < blobs.size(); ++i) {
+        var header = Fileformat.BlobHeader
+          .newBuilder()
+          .setType(types.get(i))
+          .setDatasize(blobs.get(i).length)
+          .build()
+          .toByteArray();
+        out.writeInt(header.length);
+        out.write(header);
+        out.write(blobs.get(i));
+      }
+      return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    private PbfFixture data(Fileformat.Blob blob) {
+      return add("OSMData", blob);
+    }
+
+    private PbfFixture add(String type, Fileformat.Blob blob) {
+      types.add(type);
+      blobs.add(blob.toByteArray());
+      return this;
+    }
+
+    private static Fileformat.Blob raw(byte[] bytes) {
+      return Fileformat.Blob.newBuilder().setRaw(ByteString.copyFrom(bytes)).build();
+    }
+
+    private static byte[] nodeBlock(long... ids) {
+      var group = Osmformat.PrimitiveGroup.newBuilder();
+      for (long id : ids) {
+        group.addNodes(Osmformat.Node.newBuilder().setId(id).setLat(0).setLon(0));
+      }
+      return dataBlock(group);
+    }
+
+    private static byte[] dataBlock(Osmformat.PrimitiveGroup.Builder group) {
+      return Osmformat.PrimitiveBlock
+        .newBuilder()
+        .setStringtable(Osmformat.StringTable.newBuilder())
+        .addPrimitivegroup(group)
+        .build()
+        .toByteArray();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package org.opentripplanner.osm.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OsmTagsTest {
+
+  @Test
+  void putAndGet() {
+    var subject = new OsmTags(new OsmTagKeys());
+    assertTrue(subject.isEmpty());
+
+    subject.put("highway", "residential");
+    subject.put("name", "Main Street");
+    subject.put("access", "no");
+
+    assertFalse(subject.isEmpty());
+    assertEquals("residential", subject.get("highway"));
+    assertEquals("Main Street", subject.get("name"));
+    assertEquals("no", subject.get("access"));
+    assertTrue(subject.containsKey("access"));
+    assertFalse(subject.containsKey("surface"));
+    assertNull(subject.get("surface"));
+  }
+
+  @Test
+  void replaceValue() {
+    var subject = new OsmTags(new OsmTagKeys());
+    subject.put("highway", "residential");
+    subject.put("highway", "service");
+
+    assertEquals(Map.of("highway", "service"), subject.asMap());
+  }
+
+  @Test
+  void unknownKey() {
+    var subject = new OsmTags(new OsmTagKeys());
+    subject.put("highway", "residential");
+
+    assertNull(subject.get("a-key-which-is-not-used-by-any-entity"));
+  }
+
+  @Test
+  void asMap() {
+    var subject = new OsmTags(new OsmTagKeys());
+    subject.put("highway", "residential");
+    subject.put("oneway", "yes");
+
+    assertEquals(Map.of("highway", "residential", "oneway", "yes"), subject.asMap());
+  }
+
+  @Test
+  void withKeyPrefix() {
+    var subject = new OsmTags(new OsmTagKeys());
+    subject.put("name", "Main Street");
+    subject.put("name:fr", "Rue principale");
+    subject.put("name_1", "High Street");
+    subject.put("old_name", "Station Road");
+
+    assertEquals(
+      Map.of("name", "Main Street", "name:fr", "Rue principale"),
+      subject.withKeyPrefix("name")
+    );
+    assertEquals(Map.of(), subject.withKeyPrefix("note"));
+  }
+
+  @Test
+  void tagsShareTheKeyDictionary() {
+    var keys = new OsmTagKeys();
+    var a = new OsmTags(keys);
+    var b = new OsmTags(keys);
+    var other = new OsmTags(new OsmTagKeys());
+    a.put("highway", "residential");
+    b.put("name", "Main Street");
+    other.put("surface", "gravel");
+
+    assertEquals(0, keys.lookup("highway"));
+    assertEquals(1, keys.lookup("name"));
+    assertEquals(-1, keys.lookup("surface"));
+    assertEquals(Map.of("name", "Main Street"), b.asMap());
+    assertEquals(Map.of("surface", "gravel"), other.asMap());
+  }
+}
@@ -0,0 +1,78 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.geometry.Coordinates;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+
+class TransfersByStopIndexTest {
+
+  private static final List<Edge> EDGES = List.of(
+    StreetModelForTest.streetEdge(
+      intersectionVertex(Coordinates.BERLIN),
+      intersectionVertex(Coordinates.BERLIN_BRANDENBURG_GATE)
+    )
+  );
+
+  private final TransfersByStopIndex subject = TransfersByStopIndex
+    .of()
+    .nextStop()
+    .addTransfer(1, EDGES, EnumSet.of(StreetMode.WALK))
+    .addTransfer(2, 200, EnumSet.of(StreetMode.WALK, StreetMode.BIKE))
+    .nextStop()
+    .nextStop()
+    .addTransfer(0, 300, EnumSet.of(StreetMode.BIKE))
+    .build();
+
+  @Test
+  void size() {
+    assertEquals(3, subject.size());
+  }
+
+  @Test
+  void transfersAllowingMode() {
+    var walk = subject.transfersAllowingMode(0, StreetMode.WALK);
+    assertEquals(2, walk.size());
+
+    var withEdges = walk.get(0);
+    assertEquals(1, withEdges.getToStop());
+    assertSame(EDGES, withEdges.getEdges());
+    assertEquals(Transfer.distanceMeters(EDGES), withEdges.getDistanceMeters());
+    assertTrue(withEdges.allowsMode(StreetMode.WALK));
+
+    var withoutEdges = walk.get(1);
+    assertEquals(2, withoutEdges.getToStop());
+    assertNull(withoutEdges.getEdges());
+    assertEquals(200, withoutEdges.getDistanceMeters());
+    assertTrue(withoutEdges.allowsMode(StreetMode.BIKE));
+
+    assertEquals(1, subject.transfersAllowingMode(0, StreetMode.BIKE).size());
+    assertTrue(subject.transfersAllowingMode(0, StreetMode.CAR).isEmpty());
+  }
+
+  @Test
+  void stopsWithoutTransfers() {
+    assertTrue(subject.transfersAllowingMode(1, StreetMode.WALK).isEmpty());
+    assertTrue(subject.transfersAllowingMode(2, StreetMode.WALK).isEmpty());
+    assertEquals(0, subject.transfersAllowingMode(2, StreetMode.BIKE).getFirst().getToStop());
+  }
+
+  @Test
+  void addTransferBeforeFirstStop() {
+    var builder = TransfersByStopIndex.of();
+    assertThrows(
+      IllegalStateException.class,
+      () -> builder.addTransfer(0, 100, EnumSet.of(StreetMode.WALK))
+    );
+  }
+}
@@ -0,0 +1,93 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TestTransitCaseData.STOP_A;
+import static org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TestTransitCaseData.STOP_B;
+import static org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TestTransitCaseData.STOP_C;
+import static org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TestTransitCaseData.STOP_D;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.transfer.ConstrainedTransfer;
+import org.opentripplanner.model.transfer.StopTransferPoint;
+import org.opentripplanner.model.transfer.TransferConstraint;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TestRouteData;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.basic.TransitMode;
+
+class TransferIndexGeneratorTest {
+
+  private static final StopTransferPoint STOP_C_TX_POINT = new StopTransferPoint(STOP_C);
+  private static final ConstrainedTransfer GUARANTEED_AT_C = new ConstrainedTransfer(
+    TimetableRepositoryForTest.id("T1"),
+    STOP_C_TX_POINT,
+    STOP_C_TX_POINT,
+    TransferConstraint.of().guaranteed().build()
+  );
+
+  private final TestRouteData route1 = TestRouteData.of(
+    "R1",
+    TransitMode.RAIL,
+    List.of(STOP_A, STOP_B, STOP_C),
+    "10:00 10:10 10:20"
+  );
+  private final TestRouteData route2 = TestRouteData.of(
+    "R2",
+    TransitMode.BUS,
+    List.of(STOP_B, STOP_C, STOP_D),
+    "10:15 10:30 10:40"
+  );
+  private final TestRouteData route3 = TestRouteData.of(
+    "R3",
+    TransitMode.BUS,
+    List.of(STOP_C, STOP_D),
+    "10:35 10:45"
+  );
+
+  @Test
+  void generateWithoutChangesReturnsPreviousResult() {
+    var subject = new TransferIndexGenerator(
+      List.of(GUARANTEED_AT_C),
+      List.of(route1.getTripPattern(), route2.getTripPattern())
+    );
+    var result = subject.generateTransfers();
+
+    assertSame(result, subject.generateTransfers());
+  }
+
+  @Test
+  void addRealtimeTrip() {
+    var subject = new TransferIndexGenerator(
+      List.of(GUARANTEED_AT_C),
+      List.of(route1.getTripPattern(), route2.getTripPattern())
+    );
+    int pattern3 = route3.getTripPattern().getRoutingTripPattern().patternIndex();
+    int stopPos3 = route3.stopPosition(STOP_C);
+
+    assertNull(subject.generateTransfers().toStop(pattern3));
+
+    var pattern = route3.getTripPattern();
+    subject.addRealtimeTrip(pattern, pattern.scheduledTripsAsStream().toList());
+    var result = subject.generateTransfers();
+
+    var expected = new TransferIndexGenerator(
+      List.of(GUARANTEED_AT_C),
+      List.of(route1.getTripPattern(), route2.getTripPattern(), pattern)
+    )
+      .generateTransfers();
+
+    assertEquals(2, result.toStop(pattern3).get(stopPos3).size());
+    assertEquals(
+      expected.toStop(pattern3).get(stopPos3).size(),
+      result.toStop(pattern3).get(stopPos3).size()
+    );
+    int pattern2 = route2.getTripPattern().getRoutingTripPattern().patternIndex();
+    int stopPos2 = route2.stopPosition(STOP_C);
+    assertEquals(
+      expected.toStop(pattern2).get(stopPos2).size(),
+      result.toStop(pattern2).get(stopPos2).size()
+    );
+  }
+}
@@ -0,0 +1,70 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.transit.model.basic.TransitMode.BUS;
+
+import gnu.trove.set.hash.TIntHashSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+class TripPatternsRunningOnDateMapperTest {
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2024, 3, 1);
+  private static final int SERVICE_CODE = 7;
+
+  @Test
+  void tripRunningPastMidnight() {
+    var subject = subject(pattern("23:55"));
+
+    var onServiceDate = subject.apply(SERVICE_DATE);
+    var onNextDate = subject.apply(SERVICE_DATE.plusDays(1));
+
+    assertEquals(1, onServiceDate.size());
+    assertEquals(1, onNextDate.size());
+    assertSame(onServiceDate.getFirst(), onNextDate.getFirst());
+    assertTrue(subject.apply(SERVICE_DATE.minusDays(1)).isEmpty());
+    assertTrue(subject.apply(SERVICE_DATE.plusDays(2)).isEmpty());
+  }
+
+  @Test
+  void tripRunningOnServiceDate() {
+    var subject = subject(pattern("11:00"));
+
+    assertEquals(1, subject.apply(SERVICE_DATE).size());
+    assertTrue(subject.apply(SERVICE_DATE.plusDays(1)).isEmpty());
+  }
+
+  private static TripPatternsRunningOnDateMapper subject(TripPattern pattern) {
+    var serviceCodes = new TIntHashSet();
+    serviceCodes.add(SERVICE_CODE);
+    return new TripPatternsRunningOnDateMapper(
+      List.of(pattern),
+      Set.of(SERVICE_DATE),
+      new TripPatternForDateMapper(Map.of(SERVICE_DATE, serviceCodes))
+    );
+  }
+
+  private static TripPattern pattern(String departureTime) {
+    var trip = TimetableRepositoryForTest.trip("1").build();
+    var tripTimes = TripTimesFactory.tripTimes(
+      trip,
+      TEST_MODEL.stopTimesEvery5Minutes(3, trip, departureTime),
+      new Deduplicator()
+    );
+    tripTimes.setServiceCode(SERVICE_CODE);
+    return TEST_MODEL
+      .pattern(BUS)
+      .withScheduledTimeTableBuilder(builder -> builder.addTripTimes(tripTimes))
+      .build();
+  }
+}
@@ -0,0 +1,47 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.EnumSet;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransfersByStopIndex;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+
+class RaptorRequestTransferCacheTest {
+
+  private static final TransfersByStopIndex TRANSFERS = TransfersByStopIndex
+    .of()
+    .nextStop()
+    .addTransfer(1, 100, EnumSet.of(StreetMode.WALK))
+    .nextStop()
+    .build();
+
+  @Test
+  void recordStats() {
+    var subject = new RaptorRequestTransferCache(10);
+    var request = new RouteRequest();
+
+    var index = subject.get(TRANSFERS, request);
+    assertSame(index, subject.get(TRANSFERS, request));
+
+    var stats = subject.getTransferCache().stats();
+    assertEquals(1, stats.hitCount());
+    assertEquals(1, stats.missCount());
+    assertEquals(1, stats.loadSuccessCount());
+  }
+
+  @Test
+  void put() {
+    var subject = new RaptorRequestTransferCache(10);
+    var request = new RouteRequest();
+
+    subject.put(TRANSFERS, request);
+    var index = subject.get(TRANSFERS, request);
+
+    assertEquals(1, index.getForwardTransfers(0).size());
+    assertEquals(1, index.getReversedTransfers(1).size());
+    assertEquals(0, subject.getTransferCache().stats().missCount());
+  }
+}
@@ -0,0 +1,211 @@
+package org.opentripplanner.routing.linking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Polygon;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.AreaEdgeBuilder;
+import org.opentripplanner.street.model.edge.AreaEdgeList;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.NamedArea;
+import org.opentripplanner.street.model.edge.StreetTransitStopLink;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.SplitterVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.TraverseModeSet;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.service.SiteRepository;
+import org.opentripplanner.transit.service.TimetableRepository;
+
+class VertexLinkerTest {
+
+  private static final TraverseModeSet WALK = new TraverseModeSet(TraverseMode.WALK);
+
+  /**
+   * The stops are linked in this order. The second stop is close to the edge split by the first,
+   * the stops inside and next to the platform are close to the area edges added by the stops
+   * linked before them, and the last stop is close to an edge which is not changed.
+   */
+  private static final Coordinate[] STOPS = {
+    new Coordinate(10.0015, 59.9999),
+    new Coordinate(10.0025, 59.9999),
+    new Coordinate(10.002, 60.001),
+    new Coordinate(10.0022, 60.001),
+    new Coordinate(10.002, 60.0003),
+    new Coordinate(10.006, 59.9999),
+  };
+
+  @Test
+  void prepareLinkingGivesTheSameGraphAsLinkingOneVertexAtATime() {
+    var expected = new TestGraph();
+    expected.linkStops(false);
+
+    var subject = new TestGraph();
+    subject.linkStops(true);
+
+    for (var stop : subject.stops) {
+      assertTrue(stop.isConnectedToGraph(), stop.toString());
+    }
+    assertFalse(expected.splitVertices().isEmpty());
+    assertEquals(expected.splitVertices(), subject.splitVertices());
+    assertEquals(expected.edges(), subject.edges());
+  }
+
+  /**
+   * A street along latitude 60 and a platform area north of it.
+   */
+  private static class TestGraph {
+
+    private final Graph graph;
+    private final List<TransitStopVertex> stops = new ArrayList<>();
+
+    TestGraph() {
+      var deduplicator = new Deduplicator();
+      var siteRepository = new SiteRepository();
+      var timetableRepository = new TimetableRepository(siteRepository, deduplicator);
+      graph = new Graph(deduplicator);
+
+      var s0 = vertex(60.0, 10.0);
+      var s1 = vertex(60.0, 10.004);
+      var s2 = vertex(60.0, 10.008);
+      StreetModelForTest.streetEdge(s0, s1);
+      StreetModelForTest.streetEdge(s1, s0);
+      StreetModelForTest.streetEdge(s1, s2);
+      StreetModelForTest.streetEdge(s2, s1);
+
+      addPlatform(
+        vertex(60.0015, 10.001),
+        vertex(60.0015, 10.003),
+        vertex(60.0005, 10.003),
+        vertex(60.0005, 10.001)
+      );
+
+      timetableRepository.index();
+      graph.index(timetableRepository.getSiteRepository());
+
+      var testModel = TimetableRepositoryForTest.of();
+      for (int i = 0; i < STOPS.length; i++) {
+        var stop = testModel.stop("S" + i).withCoordinate(STOPS[i].y, STOPS[i].x).build();
+        var vertex = TransitStopVertex.of().withStop(stop).build();
+        graph.addVertex(vertex);
+        stops.add(vertex);
+      }
+    }
+
+    void linkStops(boolean prepare) {
+      var linker = graph.getLinker();
+      if (prepare) {
+        linker.prepareLinking(stops, WALK);
+      }
+      for (var stop : stops) {
+        linker.linkVertexPermanently(
+          stop,
+          WALK,
+          LinkingDirection.BOTH_WAYS,
+          (vertex, streetVertex) ->
+            List.of(
+              StreetTransitStopLink.createStreetTransitStopLink(
+                (TransitStopVertex) vertex,
+                streetVertex
+              ),
+              StreetTransitStopLink.createStreetTransitStopLink(
+                streetVertex,
+                (TransitStopVertex) vertex
+              )
+            )
+        );
+      }
+      linker.clearPreparedLinks();
+    }
+
+    /**
+     * The split vertices are compared by location, the labels depend on the order in which the
+     * closest edges of a vertex are split.
+     */
+    List<String> splitVertices() {
+      return graph
+        .getVerticesOfType(SplitterVertex.class)
+        .stream()
+        .map(v -> v.getCoordinate().toString())
+        .sorted()
+        .toList();
+    }
+
+    List<String> edges() {
+      return graph.getEdges().stream().map(TestGraph::toString).sorted().toList();
+    }
+
+    private static String toString(Edge edge) {
+      return "%s %s -> %s".formatted(
+          edge.getClass().getSimpleName(),
+          edge.getFromVertex().getCoordinate(),
+          edge.getToVertex().getCoordinate()
+        );
+    }
+
+    private IntersectionVertex vertex(double lat, double lon) {
+      var vertex = StreetModelForTest.intersectionVertex(lat, lon);
+      graph.addVertex(vertex);
+      return vertex;
+    }
+
+    private void addPlatform(IntersectionVertex... corners) {
+      var ring = new Coordinate[corners.length + 1];
+      for (int i = 0; i < corners.length; i++) {
+        ring[i] = corners[i].getCoordinate();
+      }
+      ring[corners.length] = ring[0];
+      Polygon polygon = GeometryUtils.getGeometryFactory().createPolygon(ring);
+
+      var areaEdgeList = new AreaEdgeList(polygon, Set.of());
+      for (var corner : corners) {
+        areaEdgeList.addVisibilityVertex(corner);
+      }
+      var namedArea = new NamedArea();
+      namedArea.setName(I18NString.of("platform"));
+      namedArea.setPermission(StreetTraversalPermission.PEDESTRIAN);
+      namedArea.setOriginalEdges(polygon);
+      areaEdgeList.addArea(namedArea);
+
+      for (int i = 0; i < corners.length; i++) {
+        var from = corners[i];
+        var to = corners[(i + 1) % corners.length];
+        areaEdge(from, to, areaEdgeList);
+        areaEdge(to, from, areaEdgeList);
+      }
+    }
+
+    private static void areaEdge(
+      IntersectionVertex from,
+      IntersectionVertex to,
+      AreaEdgeList area
+    ) {
+      new AreaEdgeBuilder()
+        .withFromVertex(from)
+        .withToVertex(to)
+        .withGeometry(
+          GeometryUtils
+            .getGeometryFactory()
+            .createLineString(new Coordinate[] { from.getCoordinate(), to.getCoordinate() })
+        )
+        .withName(I18NString.of("platform edge"))
+        .withPermission(StreetTraversalPermission.PEDESTRIAN)
+        .withBack(false)
+        .withArea(area)
+        .buildAndConnect();
+    }
+  }
+}
@@ -7,6 +7,7 @@ import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
 import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
@@ -27,6 +28,9 @@ class DefaultRealtimeVehicleServiceTest {
   private static final TripPattern ORIGINAL = tripPattern("original", ROUTE)
     .withStopPattern(STOP_PATTERN)
     .build();
+  private static final TripPattern OTHER = tripPattern("other", ROUTE)
+    .withStopPattern(STOP_PATTERN)
+    .build();
   private static final Instant TIME = Instant.ofEpochSecond(1000);
   private static final List<RealtimeVehicle> VEHICLES = List.of(
     RealtimeVehicle.builder().withTime(TIME).withCoordinates(GREENWICH).build()
@@ -56,4 +60,17 @@ class DefaultRealtimeVehicleServiceTest {
     var updates = service.getRealtimeVehicles(ORIGINAL);
     assertEquals(VEHICLES, updates);
   }
+
+  @Test
+  void updateAndClearInOneOperation() {
+    var service = new DefaultRealtimeVehicleService(
+      new DefaultTransitService(new TimetableRepository())
+    );
+    service.setRealtimeVehicles(ORIGINAL, VEHICLES);
+
+    service.updateRealtimeVehicles(Map.of(OTHER, VEHICLES), List.of(ORIGINAL));
+
+    assertEquals(List.of(), service.getRealtimeVehicles(ORIGINAL));
+    assertEquals(VEHICLES, service.getRealtimeVehicles(OTHER));
+  }
 }
@@ -0,0 +1,62 @@
+package org.opentripplanner.service.realtimevehicles.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.framework.geometry.WgsCoordinate.GREENWICH;
+import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.route;
+import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.tripPattern;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.service.realtimevehicles.model.RealtimeVehicle;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+
+class RealtimeVehicleIndexTest {
+
+  private static final Route ROUTE = route("r1").build();
+  private static final TimetableRepositoryForTest MODEL = TimetableRepositoryForTest.of();
+  private static final StopPattern STOP_PATTERN = TimetableRepositoryForTest.stopPattern(
+    MODEL.stop("1").build(),
+    MODEL.stop("2").build()
+  );
+  private static final TripPattern PATTERN_A = tripPattern("a", ROUTE)
+    .withStopPattern(STOP_PATTERN)
+    .build();
+  private static final TripPattern PATTERN_B = tripPattern("b", ROUTE)
+    .withStopPattern(STOP_PATTERN)
+    .build();
+  private static final List<RealtimeVehicle> VEHICLES = List.of(
+    RealtimeVehicle.builder().withCoordinates(GREENWICH).build()
+  );
+
+  @Test
+  void newIndexDoesNotChangePreviousIndex() {
+    var v1 = RealtimeVehicleIndex.EMPTY.withChanges(Map.of(PATTERN_A, VEHICLES), List.of());
+    var v2 = v1.withChanges(Map.of(PATTERN_B, VEHICLES), List.of(PATTERN_A));
+
+    assertEquals(VEHICLES, v1.vehicles(PATTERN_A));
+    assertEquals(List.of(), v1.vehicles(PATTERN_B));
+
+    assertEquals(List.of(), v2.vehicles(PATTERN_A));
+    assertEquals(VEHICLES, v2.vehicles(PATTERN_B));
+  }
+
+  @Test
+  void emptyVehicleListRemovesPattern() {
+    var v1 = RealtimeVehicleIndex.EMPTY.withChanges(Map.of(PATTERN_A, VEHICLES), List.of());
+    var v2 = v1.withChanges(Map.of(PATTERN_A, List.of()), List.of());
+
+    assertEquals(List.of(), v2.vehicles(PATTERN_A));
+  }
+
+  @Test
+  void noChange() {
+    var v1 = RealtimeVehicleIndex.EMPTY.withChanges(Map.of(PATTERN_A, VEHICLES), List.of());
+
+    assertSame(v1, v1.withChanges(Map.of(), List.of(PATTERN_B)));
+  }
+}
@@ -0,0 +1,85 @@
+package org.opentripplanner.updater.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPFeature;
+
+class UpdaterMetricsTest {
+
+  private static final String CONFIG_REF = "updaters.0";
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final UpdaterMetrics subject = new UpdaterMetrics(registry, CONFIG_REF);
+
+  @Test
+  void fetchAndParse() {
+    assertEquals("payload", subject.fetch(() -> "payload"));
+    assertEquals(7, subject.parse(() -> 7));
+
+    assertEquals(1, timerCount("updater.fetch"));
+    assertEquals(1, timerCount("updater.parse"));
+  }
+
+  @Test
+  void checkedExceptionIsPassedOnAndTimed() {
+    var e = new IOException("Connection reset");
+    UpdaterMetrics.ThrowingSupplier<String, IOException> failingFetch = () -> {
+      throw e;
+    };
+
+    assertSame(e, assertThrows(IOException.class, () -> subject.fetch(failingFetch)));
+    assertEquals(1, timerCount("updater.fetch"));
+  }
+
+  @Test
+  void apply() {
+    var applied = new boolean[] { false };
+    subject.apply(() -> applied[0] = true);
+
+    assertTrue(applied[0]);
+    assertEquals(1, timerCount("updater.apply"));
+  }
+
+  @Test
+  void latency() {
+    subject.recordLatency(Instant.now().minusSeconds(30));
+    // Ignored: missing timestamp and timestamp in the future
+    subject.recordLatency(null);
+    subject.recordLatency(Instant.now().plusSeconds(30));
+
+    var timer = registry.get("updater.latency").tag("configRef", CONFIG_REF).timer();
+    assertEquals(1, timer.count());
+    assertTrue(timer.totalTime(TimeUnit.SECONDS) >= 30);
+  }
+
+  @Test
+  void noopExecutesBody() {
+    assertEquals("payload", UpdaterMetrics.NOOP.fetch(() -> "payload"));
+    UpdaterMetrics.NOOP.recordPoll(Duration.ofSeconds(1));
+  }
+
+  @Test
+  void sharedTimerIsNotRegisteredWithoutActuatorApi() {
+    OTPFeature.ActuatorAPI.testOff(() -> {
+      var timer = UpdaterMetrics.sharedTimer("shared_test", "Test timer");
+      timer.record(Duration.ofSeconds(1));
+
+      assertNull(Metrics.globalRegistry.find("updater.shared_test").timer());
+    });
+  }
+
+  private long timerCount(String name) {
+    return registry.get(name).tag("configRef", CONFIG_REF).timer().count();
+  }
+}
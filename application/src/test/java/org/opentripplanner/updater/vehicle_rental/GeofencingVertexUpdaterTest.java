@@ -2,6 +2,7 @@ package org.opentripplanner.updater.vehicle_rental;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
 import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
 import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.id;
@@ -102,4 +103,40 @@ class GeofencingVertexUpdaterTest {
     var ext = (BusinessAreaBorder) businessBorder.getFromVertex().rentalRestrictions();
     assertInstanceOf(BusinessAreaBorder.class, ext);
   }
+
+  @Test
+  void unchangedZonesAreNotReapplied() {
+    var first = updater.applyGeofencingZones(List.of(zone, businessArea));
+    assertEquals(3, first.size());
+
+    var second = updater.applyGeofencingZones(List.of(zone, businessArea));
+    assertTrue(second.isEmpty());
+    assertInstanceOf(
+      GeofencingZoneExtension.class,
+      insideFrognerPark.getFromVertex().rentalRestrictions()
+    );
+  }
+
+  @Test
+  void removedZone() {
+    updater.applyGeofencingZones(List.of(zone, businessArea));
+
+    var updated = updater.applyGeofencingZones(List.of(businessArea));
+
+    assertTrue(updated.isEmpty());
+    assertInstanceOf(NoRestriction.class, insideFrognerPark.getFromVertex().rentalRestrictions());
+    assertInstanceOf(BusinessAreaBorder.class, businessBorder.getFromVertex().rentalRestrictions());
+  }
+
+  @Test
+  void modifiedZone() {
+    updater.applyGeofencingZones(List.of(zone, businessArea));
+
+    var modified = new GeofencingZone(zone.id(), zone.geometry(), false, true);
+    var updated = updater.applyGeofencingZones(List.of(modified, businessArea));
+
+    assertEquals(2, updated.size());
+    var ext = (GeofencingZoneExtension) insideFrognerPark.getFromVertex().rentalRestrictions();
+    assertEquals(modified, ext.zone());
+  }
 }
@@ -1,19 +1,29 @@
 package org.opentripplanner.updater.vehicle_rental;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.util.concurrent.Futures;
 import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.service.vehicleparking.VehicleParkingTestGraphData;
 import org.opentripplanner.service.vehiclerental.internal.DefaultVehicleRentalService;
+import org.opentripplanner.service.vehiclerental.model.TestFreeFloatingRentalVehicleBuilder;
+import org.opentripplanner.service.vehiclerental.model.TestVehicleRentalStationBuilder;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
+import org.opentripplanner.service.vehiclerental.street.StreetVehicleRentalLink;
+import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.transit.service.TimetableRepository;
 import org.opentripplanner.updater.DefaultRealTimeUpdateContext;
 import org.opentripplanner.updater.GraphUpdaterManager;
@@ -25,6 +35,8 @@ import org.opentripplanner.updater.vehicle_rental.datasources.params.VehicleRent
 
 class VehicleRentalUpdaterTest {
 
+  private static final double DELTA = 0.0001;
+
   @Test
   void failingDatasourceCountsAsPrimed() {
     var source = new FailingDatasource();
@@ -43,6 +55,93 @@ class VehicleRentalUpdaterTest {
     assertTrue(updater.isPrimed());
   }
 
+  @Test
+  void relinkOnlyPlacesThatMoved() throws Exception {
+    var graphData = new VehicleParkingTestGraphData();
+    graphData.initGraph();
+    var graph = graphData.getGraph();
+    var timetableRepository = graphData.getTimetableRepository();
+    timetableRepository.index();
+    graph.index(timetableRepository.getSiteRepository());
+    var context = new DefaultRealTimeUpdateContext(graph, timetableRepository);
+
+    var source = new PlacesDatasource();
+    var updater = new VehicleRentalUpdater(
+      new VehicleRentalUpdaterParameters("A", Duration.ofMinutes(1), new FakeParams()),
+      source,
+      graph.getLinker(),
+      new DefaultVehicleRentalService()
+    );
+    updater.setup(runnable -> {
+      runnable.run(context);
+      return Futures.immediateVoidFuture();
+    });
+
+    var station = TestVehicleRentalStationBuilder
+      .of()
+      .withCoordinates(0.0001, 0.005)
+      .withStationOn(true)
+      .build();
+    var vehicle = TestFreeFloatingRentalVehicleBuilder
+      .of()
+      .withLatitude(0.0001)
+      .withLongitude(0.001)
+      .build();
+
+    source.places = List.of(station, vehicle);
+    updater.runPolling();
+
+    var stationVertex = vertexFor(graph, station);
+    var stationEdges = Set.copyOf(stationVertex.getOutgoing());
+    var vehicleVertex = vertexFor(graph, vehicle);
+    assertEquals(0.001, linkedStreetVertex(vehicleVertex).getLon(), DELTA);
+
+    // The vehicle moves, the station only gets a new object with the same position
+    var movedVehicle = TestFreeFloatingRentalVehicleBuilder
+      .of()
+      .withLatitude(0.0001)
+      .withLongitude(0.009)
+      .build();
+    var sameStation = TestVehicleRentalStationBuilder
+      .of()
+      .withCoordinates(0.0001, 0.005)
+      .withStationOn(true)
+      .withVehicles(3)
+      .build();
+
+    source.places = List.of(sameStation, movedVehicle);
+    updater.runPolling();
+
+    assertSame(stationVertex, vertexFor(graph, sameStation));
+    assertSame(sameStation, stationVertex.getStation());
+    assertEquals(stationEdges, Set.copyOf(stationVertex.getOutgoing()));
+
+    var movedVehicleVertex = vertexFor(graph, movedVehicle);
+    assertNotSame(vehicleVertex, movedVehicleVertex);
+    assertFalse(graph.containsVertex(vehicleVertex));
+    assertEquals(0.009, linkedStreetVertex(movedVehicleVertex).getLon(), DELTA);
+    assertEquals(2, graph.getVerticesOfType(VehicleRentalPlaceVertex.class).size());
+  }
+
+  private static VehicleRentalPlaceVertex vertexFor(Graph graph, VehicleRentalPlace place) {
+    return graph
+      .getVerticesOfType(VehicleRentalPlaceVertex.class)
+      .stream()
+      .filter(it -> it.getStation().getId().equals(place.getId()))
+      .findFirst()
+      .orElseThrow();
+  }
+
+  private static Vertex linkedStreetVertex(VehicleRentalPlaceVertex vertex) {
+    return vertex
+      .getOutgoing()
+      .stream()
+      .filter(StreetVehicleRentalLink.class::isInstance)
+      .findFirst()
+      .orElseThrow()
+      .getToVertex();
+  }
+
   static class MockManager extends GraphUpdaterManager {
 
     public MockManager(VehicleRentalUpdater updater) {
@@ -82,6 +181,21 @@ class VehicleRentalUpdaterTest {
     }
   }
 
+  static class PlacesDatasource implements VehicleRentalDatasource {
+
+    private List<VehicleRentalPlace> places = List.of();
+
+    @Override
+    public boolean update() {
+      return true;
+    }
+
+    @Override
+    public List<VehicleRentalPlace> getUpdates() {
+      return places;
+    }
+  }
+
   static class FakeParams implements VehicleRentalDataSourceParameters {
 
     @Override
@@ -145,10 +145,29 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
 
         IntIterator stop = calculator.patternStopIterator(pattern.numberOfStopsInPattern());
 
+        // Nothing is on board before the first stop where boarding is possible, so the stops
+        // before it are skipped without trying to alight. The stops reached in the previous
+        // round do not change during this phase, so checking for boarding before alighting
+        // gives the same result.
+        boolean boardedOrBoardingTried = false;
+
         while (stop.hasNext()) {
           int stopPos = stop.next();
           int stopIndex = pattern.stopIndex(stopPos);
 
+          // Don't attempt to board if this stop was not reached in the last round.
+          // Allow to reboard the same pattern - a pattern may loop and visit the same stop twice
+          boolean boardingPossible =
+            calculator.boardingPossibleAt(pattern, stopPos) &&
+            state.isStopReachedInPreviousRound(stopIndex);
+
+          if (!boardedOrBoardingTried) {
+            if (!boardingPossible) {
+              continue;
+            }
+            boardedOrBoardingTried = true;
+          }
+
           transitWorker.prepareForNextStop(stopIndex, stopPos);
 
           // attempt to alight if we're on board, this is done above the board search
@@ -161,21 +180,12 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
             }
           }
 
-          if (calculator.boardingPossibleAt(pattern, stopPos)) {
-            // Don't attempt to board if this stop was not reached in the last round.
-            // Allow to reboard the same pattern - a pattern may loop and visit the same stop twice
-            if (state.isStopReachedInPreviousRound(stopIndex)) {
-              // has constrained transfers
-              if (enableTransferConstraints && txSearch.transferExistTargetStop(stopPos)) {
-                transitWorker.boardWithConstrainedTransfer(
-                  stopIndex,
-                  stopPos,
-                  boardSlack,
-                  txSearch
-                );
-              } else {
-                transitWorker.boardWithRegularTransfer(stopIndex, stopPos, boardSlack);
-              }
+          if (boardingPossible) {
+            // has constrained transfers
+            if (enableTransferConstraints && txSearch.transferExistTargetStop(stopPos)) {
+              transitWorker.boardWithConstrainedTransfer(stopIndex, stopPos, boardSlack, txSearch);
+            } else {
+              transitWorker.boardWithRegularTransfer(stopIndex, stopPos, boardSlack);
             }
           }
         }
@@ -10,6 +10,7 @@ import org.opentripplanner.raptor.rangeraptor.standard.internalapi.BestNumberOfT
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.DestinationArrivalListener;
 import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
 import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
+import org.opentripplanner.utils.lang.IntUtils;
 
 /**
  * @param <T> The TripSchedule type defined by the user of the raptor API.
@@ -60,13 +61,25 @@ public final class StdStopArrivals<T extends RaptorTripSchedule> implements Best
     return unreachedMinNumberOfTransfers();
   }
 
+  /**
+   * Same as calling {@link #calculateMinNumberOfTransfers(int)} for each stop, but the arrivals
+   * are visited one round at a time. Each round is a separate array, so this reads the memory
+   * sequentially instead of jumping between the round arrays for every stop.
+   */
   @Override
   public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
-    return IntArraySingleCriteriaArrivals.create(
-      arrivals[0].length,
-      unreachedMinNumberOfTransfers(),
-      this::calculateMinNumberOfTransfers
-    );
+    final int unreached = unreachedMinNumberOfTransfers();
+    final int[] result = IntUtils.intArray(arrivals[0].length, unreached);
+
+    for (int i = 0; i < arrivals.length; i++) {
+      final StopArrivalState<T>[] round = arrivals[i];
+      for (int stop = 0; stop < round.length; stop++) {
+        if (round[stop] != null && result[stop] == unreached) {
+          result[stop] = i - 1;
+        }
+      }
+    }
+    return new IntArraySingleCriteriaArrivals(unreached, result);
   }
 
   void setAccessTime(int time, RaptorAccessEgress access, boolean bestTime) {
@@ -1,6 +1,5 @@
 package org.opentripplanner.raptor.rangeraptor.support;
 
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
 
 public final class IntArraySingleCriteriaArrivals implements SingleCriteriaStopArrivals {
@@ -13,18 +12,6 @@ public final class IntArraySingleCriteriaArrivals implements SingleCriteriaStopA
     this.values = values;
   }
 
-  public static IntArraySingleCriteriaArrivals create(
-    int size,
-    int unreached,
-    IntUnaryOperator mapValue
-  ) {
-    int[] array = new int[size];
-    for (int i = 0; i < size; ++i) {
-      array[i] = mapValue.applyAsInt(i);
-    }
-    return new IntArraySingleCriteriaArrivals(unreached, array);
-  }
-
   @Override
   public boolean isReached(int stop) {
     return value(stop) != unreached;
@@ -30,7 +30,8 @@ import org.slf4j.LoggerFactory;
  * This search helps the {@link RaptorService} to configure
  * heuristics and set dynamic search parameters like EDT, LAT and raptor-search-window.
  * <p>
- * If possible the forward and reverse heuristics will be run in parallel.
+ * If possible the forward and reverse heuristics will be run in parallel, and the main search is
+ * started as soon as the reverse heuristics are ready.
  * <p>
  * Depending on which optimization is enabled and which search parameters are set a forward and/or a
  * reverse "single-iteration" raptor search is performed and heuristics are collected. This is used
@@ -72,13 +73,15 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     try {
       enableHeuristicSearchBasedOnOptimizationsAndSearchParameters();
 
-      // Run the heuristics if no destination is reached
-      runHeuristics();
+      if (isItPossibleToRunHeuristicsInParallel()) {
+        return runHeuristicsInParallelWithMainSearch();
+      }
 
-      // Set search-window and other dynamic calculated parameters
-      var dynamicRequest = requestWithDynamicSearchParams(originalRequest);
+      // Run the heuristics if no destination is reached
+      runHeuristicsSequentially();
+      fwdHeuristics.debugCompareResult(revHeuristics);
 
-      return createAndRunDynamicRRWorker(dynamicRequest);
+      return runMainSearch();
     } catch (DestinationNotReachedException e) {
       return new RaptorResponse<>(
         Collections.emptyList(),
@@ -117,19 +120,11 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     );
   }
 
-  /**
-   * Run standard "singe-iteration" raptor search to calculate heuristics - this should be really
-   * fast to run compared with a (multi-criteria) range-raptor search.
-   *
-   * @throws DestinationNotReachedException if destination is not reached.
-   */
-  private void runHeuristics() {
-    if (isItPossibleToRunHeuristicsInParallel()) {
-      runHeuristicsInParallel();
-    } else {
-      runHeuristicsSequentially();
-    }
-    fwdHeuristics.debugCompareResult(revHeuristics);
+  private RaptorResponse<T> runMainSearch() {
+    // Set search-window and other dynamic calculated parameters
+    var dynamicRequest = requestWithDynamicSearchParams(originalRequest);
+
+    return createAndRunDynamicRRWorker(dynamicRequest);
   }
 
   private RaptorResponse<T> createAndRunDynamicRRWorker(RaptorRequest<T> request) {
@@ -175,19 +170,33 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
   }
 
   /**
+   * Run the forward heuristic search in the thread pool, and the reverse heuristic search followed
+   * by the main search in the caller thread. This is only done when both the
+   * earliest-departure-time and the latest-arrival-time are set. The main search then only
+   * depends on the reverse heuristics, used for destination pruning, so it does not wait for the
+   * forward heuristic search. The forward heuristic search is completed before the response is
+   * returned, so the result is the same as if the main search was started after both heuristic
+   * searches.
+   * <p>
+   * The main search does not start from partial reverse heuristics: they are not lower bounds
+   * before the reverse search is complete, and pruning on them would drop optimal paths.
+   *
    * @throws DestinationNotReachedException if destination is not reached
    */
-  private void runHeuristicsInParallel() {
+  private RaptorResponse<T> runHeuristicsInParallelWithMainSearch() {
     fwdHeuristics.withRequest(originalRequest);
     revHeuristics.withRequest(originalRequest);
-    Future<?> asyncResult = null;
+    Future<?> asyncResult = config.threadPool().submit(fwdHeuristics::run);
     try {
-      asyncResult = config.threadPool().submit(fwdHeuristics::run);
       revHeuristics.run();
+      var response = runMainSearch();
       asyncResult.get();
       LOG.debug(
-        "Route using RangeRaptor - " + "REVERSE and FORWARD heuristic search performed in parallel."
+        "Route using RangeRaptor - REVERSE and FORWARD heuristic search performed in parallel, " +
+        "the main search overlapping the FORWARD heuristic search."
       );
+      fwdHeuristics.debugCompareResult(revHeuristics);
+      return response;
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       // propagate interruption to the running task.
@@ -201,6 +210,10 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
       throw new IllegalStateException(
         "Failed to run FORWARD/REVERSE heuristic search in parallel. Details: " + e.getMessage()
       );
+    } catch (RuntimeException e) {
+      // The reverse heuristic search or the main search failed, the forward search is not needed
+      asyncResult.cancel(true);
+      throw e;
     }
   }
 